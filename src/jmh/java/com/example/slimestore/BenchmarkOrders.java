@@ -0,0 +1,38 @@
+package com.example.slimestore;
+
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.jpa.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the orders the benchmarks work on, shaped like orders loaded from the database.
+ */
+public final class BenchmarkOrders {
+
+    private BenchmarkOrders() {
+    }
+
+    /**
+     * @param lineCount The number of order lines, each with its own product.
+     * @return An order with IDs and back references set on every line.
+     */
+    public static Order order(int lineCount) {
+        Order order = new Order();
+        order.setId(4242L);
+        order.setCustomerName("Ivan Ivanov");
+        List<OrderProduct> orderProducts = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            OrderProduct orderProduct = new OrderProduct();
+            orderProduct.setId(10_000L + i);
+            orderProduct.setOrder(order);
+            orderProduct.setProduct(new Product(20_000L + i, "Galaxy Slime " + i, null));
+            orderProduct.setQuantity(1 + i % 5);
+            orderProducts.add(orderProduct);
+        }
+        order.setOrderProducts(orderProducts);
+        return order;
+    }
+}
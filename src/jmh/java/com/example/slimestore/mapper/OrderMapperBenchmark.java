@@ -0,0 +1,56 @@
+package com.example.slimestore.mapper;
+
+import com.example.slimestore.BenchmarkOrders;
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.mapper.order.OrderMapper;
+import com.example.slimestore.mapper.order.OrderMapperImpl;
+import com.example.slimestore.mapper.orderproduct.OrderProductMapperImpl;
+import com.example.slimestore.mapper.product.ProductMapperImpl;
+import com.example.slimestore.model.order.OrderDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Measures the MapStruct order mappers on orders of different sizes.
+ */
+@State(Scope.Benchmark)
+public class OrderMapperBenchmark {
+
+    @Param({ "1", "10", "100" })
+    private int lineCount;
+
+    private AnnotationConfigApplicationContext context;
+    private OrderMapper orderMapper;
+    private Order order;
+    private OrderDto orderDto;
+
+    @Setup
+    public void setUp() {
+        // the generated mappers are wired by Spring, as in the application
+        context = new AnnotationConfigApplicationContext(
+                OrderMapperImpl.class, OrderProductMapperImpl.class, ProductMapperImpl.class);
+        orderMapper = context.getBean(OrderMapper.class);
+        order = BenchmarkOrders.order(lineCount);
+        orderDto = orderMapper.toDto(order);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDto toDto() {
+        return orderMapper.toDto(order);
+    }
+
+    @Benchmark
+    public Order toEntity() {
+        return orderMapper.toEntity(orderDto);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.slimestore.model;
+
+import com.example.slimestore.BenchmarkOrders;
+import com.example.slimestore.mapper.order.OrderMapper;
+import com.example.slimestore.mapper.order.OrderMapperImpl;
+import com.example.slimestore.mapper.orderproduct.OrderProductMapperImpl;
+import com.example.slimestore.mapper.product.ProductMapperImpl;
+import com.example.slimestore.model.order.OrderDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Measures Jackson serialization of order responses of different sizes.
+ */
+@State(Scope.Benchmark)
+public class OrderDtoJsonBenchmark {
+
+    @Param({ "1", "10", "100" })
+    private int lineCount;
+
+    private ObjectWriter writer;
+    private OrderDto orderDto;
+
+    @Setup
+    public void setUp() {
+        // configured like the ObjectMapper Spring MVC writes responses with
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(OrderDto.class);
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+                OrderMapperImpl.class, OrderProductMapperImpl.class, ProductMapperImpl.class)) {
+            orderDto = context.getBean(OrderMapper.class).toDto(BenchmarkOrders.order(lineCount));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return writer.writeValueAsBytes(orderDto);
+    }
+}
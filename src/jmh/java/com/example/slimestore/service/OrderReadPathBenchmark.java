@@ -0,0 +1,143 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.BenchmarkOrders;
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.mapper.order.OrderMapper;
+import com.example.slimestore.mapper.order.OrderMapperImpl;
+import com.example.slimestore.mapper.orderproduct.OrderProductMapperImpl;
+import com.example.slimestore.mapper.product.ProductMapperImpl;
+import com.example.slimestore.model.order.OrderDto;
+import com.example.slimestore.repository.OrderRepository;
+import com.example.slimestore.repository.ProductRepository;
+import com.example.slimestore.util.OrderRowUtil;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.Repository;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Compares the two ways of reading an order response from an embedded database: loading
+ * the entities and mapping them with MapStruct, against projecting flat rows and assembling
+ * them directly. Both read the order, its order products and their products in one query,
+ * so the difference is what each way allocates and does per row. The gc profiler reports
+ * the allocation of each per read.
+ */
+@State(Scope.Benchmark)
+public class OrderReadPathBenchmark {
+
+    @Param({ "1", "10", "100" })
+    private int lineCount;
+
+    private AnnotationConfigApplicationContext context;
+    private OrderRepository orderRepository;
+    private FetchJoinedOrderRepository fetchJoinedOrderRepository;
+    private OrderMapper orderMapper;
+    private TransactionTemplate readOnlyTransaction;
+    private Long orderId;
+
+    @Setup
+    public void setUp() {
+        // only the persistence layer and the mappers, without the rest of the application
+        context = new AnnotationConfigApplicationContext(PersistenceConfig.class,
+                OrderMapperImpl.class, OrderProductMapperImpl.class, ProductMapperImpl.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        fetchJoinedOrderRepository = context.getBean(FetchJoinedOrderRepository.class);
+        orderMapper = context.getBean(OrderMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(JpaTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        orderId = saveOrder(context.getBean(ProductRepository.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDto entityPath() {
+        return readOnlyTransaction.execute(status ->
+                fetchJoinedOrderRepository.findFetchJoinedById(orderId).map(orderMapper::toDto).orElseThrow());
+    }
+
+    @Benchmark
+    public OrderDto projectionPath() {
+        return readOnlyTransaction.execute(status ->
+                OrderRowUtil.toOrderDtos(orderRepository.findOrderRowsByIdIn(List.of(orderId))).getFirst());
+    }
+
+    private Long saveOrder(ProductRepository productRepository) {
+        Order order = BenchmarkOrders.order(lineCount);
+        order.setId(null);
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            orderProduct.setId(null);
+            orderProduct.getProduct().setId(null);
+            orderProduct.setProduct(productRepository.save(orderProduct.getProduct()));
+        }
+        return orderRepository.save(order).getId();
+    }
+
+    /**
+     * Loads an order as entities the way {@link OrderRepository#findOrderRowsByIdIn} reads it
+     * as rows, with its order products and their products joined into the same query.
+     */
+    interface FetchJoinedOrderRepository extends Repository<Order, Long> {
+
+        @Query("select o from Order o left join fetch o.orderProducts line left join fetch line.product "
+                + "where o.id = ?1")
+        Optional<Order> findFetchJoinedById(Long id);
+    }
+
+    @Configuration
+    @EnableJpaRepositories(basePackageClasses = { OrderRepository.class, OrderReadPathBenchmark.class },
+            considerNestedRepositories = true)
+    static class PersistenceConfig {
+
+        @Bean(destroyMethod = "close")
+        HikariDataSource dataSource() {
+            // pooled as in the application, so a read does not pay for opening a connection
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setDriverClassName("org.h2.Driver");
+            dataSource.setJdbcUrl("jdbc:h2:mem:order-read-path;DB_CLOSE_DELAY=-1");
+            return dataSource;
+        }
+
+        @Bean
+        LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setPackagesToScan(Order.class.getPackageName());
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factory.setJpaPropertyMap(Map.of(
+                    AvailableSettings.HBM2DDL_AUTO, "create",
+                    AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName()));
+            return factory;
+        }
+
+        @Bean
+        JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+    }
+}
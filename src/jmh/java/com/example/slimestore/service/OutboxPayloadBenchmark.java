@@ -0,0 +1,52 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.OutboxMessage;
+import com.example.slimestore.model.order.OrderEvent;
+import com.example.slimestore.util.OrderEventCodec;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+
+/**
+ * Measures the outbox side of an order event: building the outbox row when the order is
+ * written, and encoding it to the bytes the relay hands to Kafka in the string and in
+ * the binary event format.
+ */
+@State(Scope.Benchmark)
+public class OutboxPayloadBenchmark {
+
+    private static final String CUSTOMER_NAME = "Ivan Ivanov";
+
+    private final StringSerializer serializer = new StringSerializer();
+
+    private Long orderId;
+    private OutboxMessage outboxMessage;
+    private OrderEvent orderEvent;
+
+    @Setup
+    public void setUp() {
+        orderId = 123_456_789L;
+        outboxMessage = OrderService.createOutboxMessage(Order.OrderStatus.ORDER_CREATED, orderId, CUSTOMER_NAME);
+        orderEvent = new OrderEvent(Order.OrderStatus.ORDER_CREATED, orderId, CUSTOMER_NAME, Instant.now());
+    }
+
+    @Benchmark
+    public OutboxMessage createOutboxMessage() {
+        return OrderService.createOutboxMessage(Order.OrderStatus.ORDER_CREATED, orderId, CUSTOMER_NAME);
+    }
+
+    @Benchmark
+    public byte[] encodePayload() {
+        return serializer.serialize(outboxMessage.getTopic(), outboxMessage.getPayload());
+    }
+
+    @Benchmark
+    public byte[] encodeBinaryEvent() {
+        return OrderEventCodec.encode(orderEvent);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.slimestore.util;
+
+import com.example.slimestore.jpa.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures building and parsing the order status messages sent for every order event.
+ */
+@State(Scope.Benchmark)
+public class OrderUtilBenchmark {
+
+    private Long orderId;
+    private String message;
+
+    @Setup
+    public void setUp() {
+        orderId = 123_456_789L;
+        message = OrderUtil.buildOrderStatusMessage(Order.OrderStatus.ORDER_CREATED, orderId);
+    }
+
+    @Benchmark
+    public String buildOrderStatusMessage() {
+        return OrderUtil.buildOrderStatusMessage(Order.OrderStatus.ORDER_CREATED, orderId);
+    }
+
+    @Benchmark
+    public Long parseOrderId() {
+        return OrderUtil.parseOrderId(message);
+    }
+
+    @Benchmark
+    public Order.OrderStatus parseOrderStatus() {
+        return OrderUtil.parseOrderStatus(message);
+    }
+}
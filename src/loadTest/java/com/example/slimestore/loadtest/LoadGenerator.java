@@ -0,0 +1,112 @@
+package com.example.slimestore.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+/**
+ * Open-model load generator: requests start on a fixed schedule at the configured rate
+ * whether or not earlier ones have completed, and each latency is measured from the
+ * moment its request was due rather than from when it was sent. A stalled application
+ * therefore shows up as latency instead of as fewer requests.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class LoadGenerator {
+
+    private final LoadTestProperties properties;
+    private final OrderWorkload workload;
+    private final HttpClient httpClient;
+
+    /**
+     * Creates the seed orders one after another, before any load is measured.
+     */
+    void seed() throws IOException, InterruptedException {
+        RandomGenerator random = new SplittableRandom(~properties.getRandomSeed());
+        for (int i = 0; i < properties.getSeedOrders(); i++) {
+            HttpResponse<String> response = httpClient.send(
+                    workload.request(OrderScenario.CREATE, random), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding an order failed with status " + response.statusCode());
+            }
+            workload.onResponse(OrderScenario.CREATE, response);
+        }
+    }
+
+    /**
+     * Runs the warmup and the measured load, then waits for the outstanding responses.
+     *
+     * @return The outcomes of the requests due in the measured period, per scenario.
+     */
+    Map<OrderScenario, ScenarioStats> run() throws InterruptedException {
+        Map<OrderScenario, ScenarioStats> stats = new EnumMap<>(OrderScenario.class);
+        for (OrderScenario scenario : OrderScenario.values()) {
+            stats.put(scenario, new ScenarioStats());
+        }
+        OrderScenario[] mix = mix();
+        RandomGenerator random = new SplittableRandom(properties.getRandomSeed());
+        Semaphore inFlight = new Semaphore(properties.getMaxInFlight());
+        double nanosPerRequest = (double) TimeUnit.SECONDS.toNanos(1) / properties.getRate();
+
+        long start = System.nanoTime();
+        long measureFrom = start + properties.getWarmup().toNanos();
+        long end = measureFrom + properties.getDuration().toNanos();
+        for (long i = 0; ; i++) {
+            long due = start + (long) (i * nanosPerRequest);
+            if (due - end >= 0) {
+                break;
+            }
+            for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            OrderScenario scenario = mix[random.nextInt(mix.length)];
+            ScenarioStats scenarioStats = due - measureFrom >= 0 ? stats.get(scenario) : null;
+            if (!inFlight.tryAcquire()) {
+                if (scenarioStats != null) {
+                    scenarioStats.recordDropped();
+                }
+                continue;
+            }
+            httpClient.sendAsync(workload.request(scenario, random), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, failure) -> {
+                        long latency = System.nanoTime() - due;
+                        inFlight.release();
+                        if (response != null) {
+                            workload.onResponse(scenario, response);
+                        }
+                        if (scenarioStats != null) {
+                            scenarioStats.record(latency, response, failure);
+                        }
+                    });
+        }
+
+        if (!inFlight.tryAcquire(properties.getMaxInFlight(),
+                properties.getDrainTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+            log.warn("{} requests still outstanding after {}, reporting without them",
+                    properties.getMaxInFlight() - inFlight.availablePermits(), properties.getDrainTimeout());
+        }
+        return stats;
+    }
+
+    // one entry per unit of weight in scenario order, so a uniform pick follows the configured mix
+    private OrderScenario[] mix() {
+        OrderScenario[] mix = new EnumMap<>(properties.getMix()).entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(OrderScenario[]::new);
+        if (mix.length == 0) {
+            throw new IllegalArgumentException("The request mix needs at least one scenario with a positive weight");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.slimestore.loadtest;
+
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, bound from {@code load-test.*} system properties, which
+ * Gradle passes on from {@code -PloadTest.<setting>=<value>}.
+ */
+@Data
+public class LoadTestProperties {
+
+    /**
+     * Requests started per second, however fast the responses come back.
+     */
+    private int rate = 1000;
+
+    /**
+     * How long the load is measured for, after the warmup.
+     */
+    private Duration duration = Duration.ofSeconds(60);
+
+    /**
+     * How long the load runs before measuring starts.
+     */
+    private Duration warmup = Duration.ofSeconds(10);
+
+    /**
+     * Whether the application serves requests on virtual threads, or on Tomcat's pool of
+     * platform threads. Running once with each compares the two on the real endpoints.
+     */
+    private boolean virtualThreads = true;
+
+    /**
+     * Relative weights of the scenarios in the request mix.
+     */
+    private Map<OrderScenario, Integer> mix = new EnumMap<>(Map.of(
+            OrderScenario.CREATE, 20,
+            OrderScenario.GET, 60,
+            OrderScenario.SEARCH, 15,
+            OrderScenario.DELETE, 5));
+
+    /**
+     * Orders created before the load starts, so reads and searches find data from the first request.
+     */
+    private int seedOrders = 200;
+
+    /**
+     * Requests allowed to wait for a response at once. Requests due beyond it are not sent
+     * and are reported as dropped, which bounds the memory of the generator when the
+     * application cannot keep up.
+     */
+    private int maxInFlight = 5000;
+
+    /**
+     * How long a single request may take before it counts as an error.
+     */
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    /**
+     * How long to wait for outstanding responses once the load stops.
+     */
+    private Duration drainTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Number of partitions of the orders topic on the embedded broker.
+     */
+    private int partitions = 4;
+
+    /**
+     * Seed of the random choices, so every run sends the same sequence of requests.
+     */
+    private long randomSeed = 42;
+
+    /**
+     * Where the JSON report is written. The percentile distribution of all requests is
+     * written beside it in the HdrHistogram text format, with an {@code .hgrm} extension.
+     */
+    private Path resultsFile = Path.of("build", "results", "loadTest", "results.json");
+}
@@ -0,0 +1,72 @@
+package com.example.slimestore.loadtest;
+
+import lombok.Value;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The report of a load test run, written as JSON so runs can be compared across commits.
+ */
+@Value
+class LoadTestReport {
+
+    Instant finishedAt;
+    int rate;
+    Duration warmup;
+    Duration duration;
+    Map<OrderScenario, Integer> mix;
+    boolean virtualThreads;
+    ScenarioReport total;
+    Map<OrderScenario, ScenarioReport> scenarios;
+
+    static LoadTestReport of(LoadTestProperties properties, ScenarioStats total,
+                             Map<OrderScenario, ScenarioStats> scenarios) {
+        double seconds = properties.getDuration().toNanos() / 1e9;
+        Map<OrderScenario, ScenarioReport> scenarioReports = new EnumMap<>(OrderScenario.class);
+        scenarios.forEach((scenario, stats) -> scenarioReports.put(scenario, ScenarioReport.of(stats, seconds)));
+        return new LoadTestReport(Instant.now(), properties.getRate(), properties.getWarmup(),
+                properties.getDuration(), new EnumMap<>(properties.getMix()), properties.isVirtualThreads(),
+                ScenarioReport.of(total, seconds),
+                scenarioReports);
+    }
+
+    /**
+     * Outcomes of the requests due in the measured period. The error rate counts dropped
+     * requests as failed, and the throughput counts responses that were not errors.
+     */
+    @Value
+    static class ScenarioReport {
+
+        long requests;
+        long errors;
+        long notFound;
+        long dropped;
+        double errorRate;
+        double throughput;
+        double p50Millis;
+        double p95Millis;
+        double p99Millis;
+        double maxMillis;
+
+        static ScenarioReport of(ScenarioStats stats, double seconds) {
+            Histogram latencies = stats.getLatencies();
+            long requests = latencies.getTotalCount();
+            long offered = requests + stats.getDropped();
+            return new ScenarioReport(requests, stats.getErrors(), stats.getNotFound(), stats.getDropped(),
+                    offered == 0 ? 0 : (double) (stats.getErrors() + stats.getDropped()) / offered,
+                    (requests - stats.getErrors()) / seconds,
+                    toMillis(latencies.getValueAtPercentile(50)),
+                    toMillis(latencies.getValueAtPercentile(95)),
+                    toMillis(latencies.getValueAtPercentile(99)),
+                    toMillis(latencies.getMaxValue()));
+        }
+
+        private static double toMillis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
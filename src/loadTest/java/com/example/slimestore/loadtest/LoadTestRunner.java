@@ -0,0 +1,95 @@
+package com.example.slimestore.loadtest;
+
+import com.example.slimestore.SlimestoreApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.example.slimestore.service.OrderService.ORDER_TOPIC;
+
+/**
+ * Runs the load test offline: starts an embedded Kafka broker, boots the application
+ * against it and an in-memory H2 database on a random port, seeds orders, drives the
+ * order endpoints with the configured mix and writes the report. Arguments are passed on
+ * to the application, so any of its properties can be overridden with {@code --name=value}.
+ */
+@Slf4j
+public final class LoadTestRunner {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestProperties properties = Binder.get(new StandardEnvironment())
+                .bindOrCreate("load-test", LoadTestProperties.class);
+        EmbeddedKafkaBroker broker = new EmbeddedKafkaKraftBroker(1, properties.getPartitions(), ORDER_TOPIC);
+        broker.afterPropertiesSet();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SlimestoreApplication.class)
+                .properties("logging.level.root=warn", "logging.level.com.example.slimestore.loadtest=info")
+                .run(applicationArgs(broker, properties, args));
+             HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port"));
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            LoadGenerator generator = new LoadGenerator(properties,
+                    new OrderWorkload(baseUri, objectMapper, properties.getRequestTimeout()), httpClient);
+
+            generator.seed();
+            log.info("Sending {} requests/s with mix {} for {} after a {} warmup, on {} threads",
+                    properties.getRate(), properties.getMix(), properties.getDuration(), properties.getWarmup(),
+                    properties.isVirtualThreads() ? "virtual" : "platform");
+            Map<OrderScenario, ScenarioStats> scenarios = generator.run();
+
+            ScenarioStats total = new ScenarioStats();
+            scenarios.values().forEach(total::add);
+            LoadTestReport report = LoadTestReport.of(properties, total, scenarios);
+            report.getScenarios().forEach((scenario, scenarioReport) -> logReport(scenario.name(), scenarioReport));
+            logReport("TOTAL", report.getTotal());
+            write(properties.getResultsFile(), report, objectMapper, total);
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    // the broker address, port and thread model go in as arguments, to take precedence over application.properties
+    private static String[] applicationArgs(EmbeddedKafkaBroker broker, LoadTestProperties properties, String[] args) {
+        return Stream.concat(
+                Stream.of("--server.port=0", "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                        "--spring.threads.virtual.enabled=" + properties.isVirtualThreads()),
+                Stream.of(args)).toArray(String[]::new);
+    }
+
+    private static void logReport(String name, LoadTestReport.ScenarioReport report) {
+        log.info("{} {} requests, {} req/s, {}% errors, {} dropped, p50 {} ms, p95 {} ms, p99 {} ms, max {} ms",
+                name, report.getRequests(), String.format("%.1f", report.getThroughput()),
+                String.format("%.2f", report.getErrorRate() * 100), report.getDropped(),
+                report.getP50Millis(), report.getP95Millis(), report.getP99Millis(), report.getMaxMillis());
+    }
+
+    private static void write(Path resultsFile, LoadTestReport report, ObjectMapper objectMapper, ScenarioStats total)
+            throws IOException {
+        Files.createDirectories(resultsFile.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(resultsFile.toFile(), report);
+        Path distributionFile = resultsFile.resolveSibling(
+                resultsFile.getFileName().toString().replaceFirst("\\.json$", "") + ".hgrm");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(distributionFile))) {
+            total.getLatencies().outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+        log.info("Report written to {} and {}", resultsFile, distributionFile);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.slimestore.loadtest;
+
+/**
+ * The kinds of requests the load test sends to the order endpoints.
+ */
+public enum OrderScenario {
+    CREATE,
+    GET,
+    SEARCH,
+    DELETE
+}
@@ -0,0 +1,126 @@
+package com.example.slimestore.loadtest;
+
+import com.example.slimestore.model.order.OrderDto;
+import com.example.slimestore.model.orderproduct.OrderProductDto;
+import com.example.slimestore.model.product.ProductDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * Builds the requests of each scenario and keeps track of the orders created so far, so
+ * reads and deletes address orders that exist. Requests are built on the generator
+ * thread only, while responses may be handled on any thread.
+ */
+@RequiredArgsConstructor
+class OrderWorkload {
+
+    private static final List<String> PRODUCT_NAMES = IntStream.range(0, 50)
+            .mapToObj(i -> "Load Slime " + i)
+            .toList();
+    private static final int MAX_ORDER_LINES = 5;
+    private static final int SEARCH_PAGE_SIZE = 20;
+    // a ring of recently created order IDs, zero marking a free or deleted slot
+    private static final int ORDER_ID_SLOTS = 1 << 16;
+    private static final int MAX_SLOT_PROBES = 16;
+
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final Duration requestTimeout;
+    private final AtomicLongArray orderIds = new AtomicLongArray(ORDER_ID_SLOTS);
+    private final AtomicLong createdOrders = new AtomicLong();
+
+    HttpRequest request(OrderScenario scenario, RandomGenerator random) {
+        return switch (scenario) {
+            case CREATE -> newRequest("/api/orders")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(createOrderBody(random)))
+                    .build();
+            case GET -> newRequest("/api/orders/" + pickOrderId(random, false))
+                    .GET()
+                    .build();
+            case SEARCH -> newRequest("/api/orders/search?size=" + SEARCH_PAGE_SIZE + "&itemName="
+                    + URLEncoder.encode(PRODUCT_NAMES.get(random.nextInt(PRODUCT_NAMES.size())), StandardCharsets.UTF_8))
+                    .GET()
+                    .build();
+            case DELETE -> newRequest("/api/orders/" + pickOrderId(random, true))
+                    .DELETE()
+                    .build();
+        };
+    }
+
+    /**
+     * Remembers the order a successful create returned.
+     */
+    void onResponse(OrderScenario scenario, HttpResponse<String> response) {
+        if (scenario != OrderScenario.CREATE || response.statusCode() != 201) {
+            return;
+        }
+        try {
+            long id = objectMapper.readTree(response.body()).get("id").asLong();
+            orderIds.set((int) (createdOrders.getAndIncrement() % ORDER_ID_SLOTS), id);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.Builder newRequest(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(requestTimeout);
+    }
+
+    /**
+     * Picks a known order from a random slot, moving on past deleted ones.
+     *
+     * @return The ID of the order, or 0, which no order has, if none was found nearby.
+     */
+    private long pickOrderId(RandomGenerator random, boolean remove) {
+        int filledSlots = (int) Math.min(createdOrders.get(), ORDER_ID_SLOTS);
+        if (filledSlots == 0) {
+            return 0;
+        }
+        int slot = random.nextInt(filledSlots);
+        for (int probe = 0; probe < MAX_SLOT_PROBES; probe++, slot = (slot + 1) % filledSlots) {
+            long id = remove ? orderIds.getAndSet(slot, 0) : orderIds.get(slot);
+            if (id != 0) {
+                return id;
+            }
+        }
+        return 0;
+    }
+
+    private String createOrderBody(RandomGenerator random) {
+        int lineCount = 1 + random.nextInt(MAX_ORDER_LINES);
+        int firstProduct = random.nextInt(PRODUCT_NAMES.size());
+        List<OrderProductDto> orderProducts = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            ProductDto product = new ProductDto();
+            product.setName(PRODUCT_NAMES.get((firstProduct + i) % PRODUCT_NAMES.size()));
+            OrderProductDto orderProduct = new OrderProductDto();
+            orderProduct.setProduct(product);
+            orderProduct.setQuantity(1 + random.nextInt(3));
+            orderProducts.add(orderProduct);
+        }
+        OrderDto order = new OrderDto();
+        order.setCustomerName("Load Customer " + random.nextInt(1000));
+        order.setOrderProducts(orderProducts);
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.slimestore.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes of the measured requests of one scenario, recorded concurrently from the
+ * threads that complete the responses. Latencies are kept in microseconds.
+ */
+class ScenarioStats {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Histogram latencies = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * A response with a status of 400 or above is an error, except for 404: reads and
+     * deletes may race a delete of the same order.
+     */
+    void record(long latencyNanos, HttpResponse<?> response, Throwable failure) {
+        latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        if (failure != null) {
+            errors.increment();
+        } else if (response.statusCode() == 404) {
+            notFound.increment();
+        } else if (response.statusCode() >= 400) {
+            errors.increment();
+        }
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    void add(ScenarioStats other) {
+        latencies.add(other.latencies);
+        errors.add(other.getErrors());
+        notFound.add(other.getNotFound());
+        dropped.add(other.getDropped());
+    }
+
+    Histogram getLatencies() {
+        return latencies;
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    long getNotFound() {
+        return notFound.sum();
+    }
+
+    long getDropped() {
+        return dropped.sum();
+    }
+}
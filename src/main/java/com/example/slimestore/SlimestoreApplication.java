@@ -2,9 +2,11 @@ package com.example.slimestore;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.kafka.annotation.EnableKafka;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class SlimestoreApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,15 @@
+package com.example.slimestore.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Enables Spring caching, backed by Caffeine and configured through {@code spring.cache.*}.
+ * The caching advice wraps the transactional advice, so a cache hit does not open a
+ * transaction.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+}
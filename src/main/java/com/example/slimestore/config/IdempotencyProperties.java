@@ -0,0 +1,40 @@
+package com.example.slimestore.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of idempotent order creation, bound from {@code app.orders.idempotency.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.orders.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Maximum number of recent responses kept in memory for replaying.
+     */
+    private long cacheMaxSize = 10_000;
+
+    /**
+     * How long a response stays in memory after it was stored.
+     */
+    private Duration cacheExpireAfterWrite = Duration.ofMinutes(10);
+
+    /**
+     * How long a key is kept in the database, the window in which retries are recognised.
+     */
+    private Duration retention = Duration.ofHours(24);
+
+    /**
+     * How often keys older than the retention are deleted.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    /**
+     * How long a request waits for a concurrent request with the same key to finish
+     * before it is answered as still in progress.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(30);
+}
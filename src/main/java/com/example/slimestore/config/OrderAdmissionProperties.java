@@ -0,0 +1,57 @@
+package com.example.slimestore.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of admission control on order creation, bound from {@code app.orders.admission.*}.
+ * Order writes are delayed once the outbox backlog passes the delay thresholds and shed
+ * once it passes the shed thresholds, so a relay that cannot keep up is not buried further.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.orders.admission")
+public class OrderAdmissionProperties {
+
+    /**
+     * Whether order creation is subject to admission control.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of unrelayed outbox messages from which new orders are delayed.
+     */
+    private long delayBacklog = 10_000;
+
+    /**
+     * Number of unrelayed outbox messages from which new orders are rejected.
+     */
+    private long shedBacklog = 100_000;
+
+    /**
+     * Age of the oldest unrelayed outbox message from which new orders are delayed.
+     */
+    private Duration delayAge = Duration.ofSeconds(30);
+
+    /**
+     * Age of the oldest unrelayed outbox message from which new orders are rejected.
+     */
+    private Duration shedAge = Duration.ofMinutes(5);
+
+    /**
+     * Number of relay batches in a row that relayed nothing from which new orders are
+     * delayed as long as possible.
+     */
+    private int relayFailureThreshold = 3;
+
+    /**
+     * Longest delay of an admitted order, reached as the backlog approaches the shed thresholds.
+     */
+    private Duration maxDelay = Duration.ofMillis(500);
+
+    /**
+     * How long rejected clients are asked to wait before retrying, sent as {@code Retry-After}.
+     */
+    private Duration retryAfter = Duration.ofSeconds(10);
+}
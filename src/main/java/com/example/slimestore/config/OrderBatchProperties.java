@@ -0,0 +1,27 @@
+package com.example.slimestore.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of batch order creation and bulk deletion, bound from {@code app.orders.batch.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.orders.batch")
+public class OrderBatchProperties {
+
+    /**
+     * Number of orders persisted together in one transaction.
+     */
+    private int chunkSize = 100;
+
+    /**
+     * Maximum number of orders accepted in one request.
+     */
+    private int maxSize = 1000;
+
+    /**
+     * Number of orders deleted together in one transaction by a bulk delete.
+     */
+    private int deleteChunkSize = 500;
+}
@@ -0,0 +1,27 @@
+package com.example.slimestore.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the order search endpoints, bound from {@code app.orders.search.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.orders.search")
+public class OrderSearchProperties {
+
+    /**
+     * Page size used when the client does not ask for one.
+     */
+    private int defaultPageSize = 50;
+
+    /**
+     * Largest page size a client may ask for.
+     */
+    private int maxPageSize = 500;
+
+    /**
+     * Number of orders loaded and written together while streaming search results.
+     */
+    private int streamChunkSize = 100;
+}
@@ -0,0 +1,159 @@
+package com.example.slimestore.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the transactional outbox relay, bound from {@code app.outbox.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+    /**
+     * Longest delay in milliseconds between relay polls, reached while the outbox stays empty.
+     */
+    private long delay = 5000;
+
+    /**
+     * Maximum number of outbox messages claimed and relayed in one transaction.
+     */
+    private int batchSize = 100;
+
+    /**
+     * How claimed messages are published to Kafka.
+     */
+    private PublishMode publishMode = PublishMode.PIPELINED;
+
+    /**
+     * How order events are encoded on the wire.
+     */
+    private EventFormat eventFormat = EventFormat.BINARY;
+
+    /**
+     * What happens to outbox rows once they are relayed.
+     */
+    private StorageMode storageMode = StorageMode.DELETE_ON_PUBLISH;
+
+    /**
+     * Settings of the {@code append-only} storage mode.
+     */
+    private AppendOnly appendOnly = new AppendOnly();
+
+    /**
+     * How long a pipelined batch waits for broker acknowledgements.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    /**
+     * How long a measured outbox backlog is reused before the outbox is counted again.
+     */
+    private Duration backlogRefreshInterval = Duration.ofSeconds(5);
+
+    /**
+     * How relay runs are triggered and executed.
+     */
+    private Relay relay = new Relay();
+
+    public enum StorageMode {
+        /**
+         * Deletes relayed rows with every batch.
+         */
+        DELETE_ON_PUBLISH,
+        /**
+         * Treats the outbox as an append-only log: the relay only advances a checkpoint
+         * per partition, and relayed rows are deleted in bulk once they are older than
+         * the retention. Switching back to {@code DELETE_ON_PUBLISH} publishes the
+         * retained rows again.
+         */
+        APPEND_ONLY
+    }
+
+    @Data
+    public static class AppendOnly {
+
+        /**
+         * How old a message must be before it is relayed. A transaction that stamped its
+         * message earlier but commits later than a relayed one would otherwise fall behind
+         * the checkpoint, never be relayed and eventually be truncated, so this must exceed
+         * the write timeout plus the time a commit takes plus the clock skew between instances.
+         */
+        private Duration visibilityDelay = Duration.ofSeconds(1);
+
+        /**
+         * Longest time from stamping an outbox message to committing it. Transactions that
+         * take longer are rolled back instead of committing a message the relay may have
+         * already passed by. Must stay below the visibility delay.
+         */
+        private Duration writeTimeout = Duration.ofMillis(500);
+
+        /**
+         * How long relayed messages are kept before they are deleted.
+         */
+        private Duration retention = Duration.ofHours(1);
+
+        /**
+         * Delay between bulk deletions of relayed messages older than the retention.
+         */
+        private Duration truncateInterval = Duration.ofMinutes(1);
+    }
+
+    public enum EventFormat {
+        /**
+         * The original {@code "ORDER_CREATED:42"} text, for consumers that read strings.
+         */
+        STRING,
+        /**
+         * The compact binary encoding of {@code OrderEventCodec}, with its schema version
+         * in a record header.
+         */
+        BINARY
+    }
+
+    @Data
+    public static class Relay {
+
+        /**
+         * Whether this instance relays the outbox.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Delay before the next poll after a run that relayed messages or after a wake-up.
+         */
+        private Duration minPollInterval = Duration.ofMillis(100);
+
+        /**
+         * Factor the poll interval grows by after every run that found the outbox empty,
+         * up to {@code delay}.
+         */
+        private double backoffMultiplier = 2.0;
+
+        /**
+         * Number of hash partitions of the outbox, each relayed by its own worker so that
+         * the events of one order are published in order while different orders are
+         * published in parallel. All instances must use the same number.
+         */
+        private int workers = 4;
+
+        /**
+         * Maximum number of relay runs in flight at once. A poll that finds all of them
+         * busy is skipped rather than queued.
+         */
+        private int maxConcurrency = 1;
+    }
+
+    public enum PublishMode {
+        /**
+         * Sends messages one by one and stops at the first one that cannot be handed to Kafka.
+         */
+        PER_MESSAGE,
+        /**
+         * Sends the whole batch asynchronously and waits for the broker acknowledgements;
+         * only the messages before the first unacknowledged one count as relayed.
+         */
+        PIPELINED
+    }
+}
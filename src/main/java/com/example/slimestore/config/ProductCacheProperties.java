@@ -0,0 +1,24 @@
+package com.example.slimestore.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the in-process product name to id cache, bound from {@code app.product-cache.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.product-cache")
+public class ProductCacheProperties {
+
+    /**
+     * Maximum number of product names kept in the cache.
+     */
+    private long maxSize = 10_000;
+
+    /**
+     * How long an entry stays cached after it was last used.
+     */
+    private Duration expireAfterAccess = Duration.ofHours(1);
+}
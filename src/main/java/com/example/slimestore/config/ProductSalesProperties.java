@@ -0,0 +1,31 @@
+package com.example.slimestore.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the product sales analytics, bound from {@code app.products.sales.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.products.sales")
+public class ProductSalesProperties {
+
+    /**
+     * Number of products returned when the client does not ask for a limit.
+     */
+    private int defaultLimit = 10;
+
+    /**
+     * Largest number of products a top-selling query may return.
+     */
+    private int maxLimit = 100;
+
+    /**
+     * How often the counters are reconciled with a full aggregate over the order products,
+     * picking up orders of other instances and correcting any drift left by concurrent
+     * updates. Bounds how far the top sellers of an instance lag behind the others.
+     */
+    private Duration reconcileInterval = Duration.ofMinutes(10);
+}
@@ -0,0 +1,37 @@
+package com.example.slimestore.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the product name search, bound from {@code app.products.search.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.products.search")
+public class ProductSearchProperties {
+
+    /**
+     * Number of products returned when the client does not ask for a limit.
+     */
+    private int defaultLimit = 20;
+
+    /**
+     * Largest number of products a search may return, also the number of matching
+     * products an order search is widened to.
+     */
+    private int maxLimit = 100;
+
+    /**
+     * Largest number of typos tolerated by a fuzzy search. Shorter queries tolerate
+     * fewer: one per four characters.
+     */
+    private int maxEditDistance = 2;
+
+    /**
+     * How often the name index is rebuilt from the catalog, picking up products written
+     * around this instance, e.g. by another instance or directly in the database.
+     */
+    private Duration reloadInterval = Duration.ofMinutes(5);
+}
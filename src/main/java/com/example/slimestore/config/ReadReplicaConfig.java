@@ -0,0 +1,63 @@
+package com.example.slimestore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to read replicas when {@code app.datasource.replicas.enabled}
+ * is set. The application data source is a lazy proxy around the primary pool, which is
+ * configured under {@code spring.datasource.*} as usual. The proxy fetches the physical
+ * connection at the first statement, after the transaction has marked it read-only, and
+ * takes read-only connections from the replicas. Writes stay on the primary, and so does
+ * the outbox relay, which claims and reads its batches in read-write transactions.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadReplicaDataSource readReplicaDataSource(HikariDataSource primaryDataSource,
+                                                       ReadReplicaProperties properties) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReadReplicaProperties.Instance instance : properties.getInstances()) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(instance.getUrl())
+                    .username(instance.getUsername())
+                    .password(instance.getPassword())
+                    .build();
+            replica.setPoolName("replica-" + replicas.size());
+            // sized like the primary, which bounds the database load however many request threads there are
+            replica.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            replicas.add(replica);
+        }
+        return new ReadReplicaDataSource(primaryDataSource, replicas, properties);
+    }
+
+    @Bean
+    @Primary
+    public LazyConnectionDataSourceProxy dataSource(HikariDataSource primaryDataSource,
+                                                    ReadReplicaDataSource readReplicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(readReplicaDataSource);
+        return dataSource;
+    }
+}
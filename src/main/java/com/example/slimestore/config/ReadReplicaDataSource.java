@@ -0,0 +1,199 @@
+package com.example.slimestore.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Hands out connections from a set of read replicas, falling back to the primary when
+ * none is usable. A replica is usable while its last lag probe succeeded and reported a
+ * replication lag within the configured maximum, so until the first probe all reads go
+ * to the primary. A replica that fails to hand out a connection is left out until its
+ * next successful probe.
+ */
+@Slf4j
+public class ReadReplicaDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadReplicaProperties properties;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final LongAdder primaryFallbacks = new LongAdder();
+
+    public ReadReplicaDataSource(DataSource primary, List<DataSource> replicas, ReadReplicaProperties properties) {
+        this.primary = primary;
+        this.replicas = IntStream.range(0, replicas.size())
+                .mapToObj(i -> new Replica("replica-" + i, replicas.get(i)))
+                .toList();
+        this.properties = properties;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        for (Replica replica : candidates()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                replica.usable = false;
+                log.warn("Replica {} failed to hand out a connection, leaving it out until its next probe",
+                        replica.name, e);
+            }
+        }
+        primaryFallbacks.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the credentials they are configured with");
+    }
+
+    /**
+     * Measures the replication lag of every replica and decides which may serve reads.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.lag-probe-interval:5s}")
+    public void probeLag() {
+        double maxLagSeconds = properties.getMaxLag().toMillis() / 1000.0;
+        for (Replica replica : replicas) {
+            boolean wasUsable = replica.usable;
+            try {
+                Double lag = replica.jdbcTemplate.queryForObject(properties.getLagQuery(), Double.class);
+                replica.lagSeconds = lag == null ? Double.NaN : lag;
+                replica.usable = lag != null && lag <= maxLagSeconds;
+            } catch (DataAccessException e) {
+                replica.lagSeconds = Double.NaN;
+                replica.usable = false;
+                if (wasUsable) {
+                    log.warn("Lag probe of replica {} failed, reading from the others", replica.name, e);
+                }
+            }
+            if (replica.usable != wasUsable) {
+                log.info("Replica {} {} reads with a lag of {}s", replica.name,
+                        replica.usable ? "serves" : "no longer serves", replica.lagSeconds);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication lag of the replica at its last probe, NaN if the probe failed")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(registry);
+        }
+        FunctionCounter.builder("datasource.replica.fallbacks", primaryFallbacks, LongAdder::sum)
+                .description("Read-only connections taken from the primary because no replica was usable")
+                .register(registry);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private List<Replica> candidates() {
+        List<Replica> usable = replicas.stream().filter(replica -> replica.usable).toList();
+        if (usable.size() <= 1) {
+            return usable;
+        }
+        return switch (properties.getSelection()) {
+            case ROUND_ROBIN -> {
+                int first = Math.floorMod(nextReplica.getAndIncrement(), usable.size());
+                List<Replica> rotated = new ArrayList<>(usable.size());
+                for (int i = 0; i < usable.size(); i++) {
+                    rotated.add(usable.get((first + i) % usable.size()));
+                }
+                yield rotated;
+            }
+            case LEAST_LOADED -> usable.stream()
+                    .sorted(Comparator.comparingInt(replica -> replica.inUse.get()))
+                    .toList();
+        };
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private final AtomicInteger inUse = new AtomicInteger();
+        private volatile boolean usable;
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+
+        // counts the connection as in use until it is closed, for least-loaded selection
+        private Connection getConnection() throws SQLException {
+            Connection connection = dataSource.getConnection();
+            inUse.incrementAndGet();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new InUseHandler(connection, inUse));
+        }
+    }
+
+    private static final class InUseHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final AtomicInteger inUse;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private InUseHandler(Connection target, AtomicInteger inUse) {
+            this.target = target;
+            this.inUse = inUse;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        inUse.decrementAndGet();
+                    }
+                    break;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
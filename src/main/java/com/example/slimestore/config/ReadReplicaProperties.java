@@ -0,0 +1,80 @@
+package com.example.slimestore.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the read replicas serving read-only transactions, bound from
+ * {@code app.datasource.replicas.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.replicas")
+public class ReadReplicaProperties {
+
+    /**
+     * Whether read-only transactions are routed to the replicas. When disabled, all
+     * queries go to the primary data source configured under {@code spring.datasource.*}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The replicas to read from.
+     */
+    private List<Instance> instances = new ArrayList<>();
+
+    /**
+     * How a replica is chosen among the usable ones for each read-only transaction.
+     */
+    private Selection selection = Selection.ROUND_ROBIN;
+
+    /**
+     * Largest replication lag a replica may report and still serve reads.
+     */
+    private Duration maxLag = Duration.ofSeconds(10);
+
+    /**
+     * Delay between lag probes of the replicas.
+     */
+    private Duration lagProbeInterval = Duration.ofSeconds(5);
+
+    /**
+     * Query run on each replica that returns its replication lag in seconds. The default
+     * reports zero for a PostgreSQL standby that has replayed all it has received.
+     */
+    private String lagQuery = "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+
+    public enum Selection {
+        /**
+         * Takes the usable replicas in turn.
+         */
+        ROUND_ROBIN,
+        /**
+         * Takes the usable replica with the fewest connections currently handed out.
+         */
+        LEAST_LOADED
+    }
+
+    @Data
+    public static class Instance {
+
+        /**
+         * JDBC URL of the replica.
+         */
+        private String url;
+
+        /**
+         * Login username of the replica.
+         */
+        private String username;
+
+        /**
+         * Login password of the replica.
+         */
+        private String password;
+    }
+}
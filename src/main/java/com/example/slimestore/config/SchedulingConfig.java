@@ -0,0 +1,32 @@
+package com.example.slimestore.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled tasks and provides the executor outbox relay runs and their
+ * partition workers are handed to.
+ * Scheduled methods only trigger work, so a slow run never holds a scheduler thread.
+ * With {@code spring.threads.virtual.enabled} every run gets its own virtual thread,
+ * which is parked rather than held while it waits on JDBC or broker acknowledgements.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    public static final String OUTBOX_RELAY_EXECUTOR = "outboxRelayExecutor";
+
+    @Bean(name = OUTBOX_RELAY_EXECUTOR)
+    public SimpleAsyncTaskExecutor outboxRelayExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            OutboxProperties outboxProperties) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("outbox-relay-");
+        executor.setVirtualThreads(virtualThreads);
+        // lets a run in flight finish its batch on shutdown instead of leaving it to the lock timeout
+        executor.setTaskTerminationTimeout(outboxProperties.getSendTimeout().toMillis());
+        return executor;
+    }
+}
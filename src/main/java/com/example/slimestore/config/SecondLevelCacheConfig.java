@@ -0,0 +1,70 @@
+package com.example.slimestore.config;
+
+import com.example.slimestore.jpa.Product;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.OptionalLong;
+
+/**
+ * Enables the Hibernate second-level cache and query cache, backed by the JCache provider
+ * of Caffeine. Only entities annotated as cacheable are cached. Writes through Hibernate
+ * update or invalidate the cached entities and queries of the written tables as they
+ * commit; rows changed around Hibernate, e.g. by another instance, are only picked up
+ * when their entries expire.
+ * <p>
+ * Every region is created up front: entity and query result regions are bounded in size
+ * and age, while the update timestamps region is never evicted, since losing a timestamp
+ * could let a stale query result through. Hibernate fails to start on a region missing
+ * here instead of creating it unbounded. Hit, miss and eviction counts of every region
+ * are exported as {@code cache.*} metrics tagged with the region name.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(SecondLevelCacheProperties properties,
+                                                                    MeterRegistry meterRegistry) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+            // the region factory closes the cache manager together with the session factory
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager(properties, meterRegistry));
+        };
+    }
+
+    private CacheManager cacheManager(SecondLevelCacheProperties properties, MeterRegistry meterRegistry) {
+        // a provider of its own, so every session factory gets its own regions
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        CaffeineConfiguration<Object, Object> bounded = new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(properties.getMaxSize()))
+                .setExpireAfterWrite(OptionalLong.of(properties.getExpireAfterWrite().toNanos()))
+                .setStoreByValue(false)
+                .setNativeStatisticsEnabled(true);
+        monitor(cacheManager.createCache(Product.class.getName(), bounded), meterRegistry);
+        monitor(cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, bounded),
+                meterRegistry);
+        monitor(cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>().setStoreByValue(false).setNativeStatisticsEnabled(true)), meterRegistry);
+        return cacheManager;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void monitor(Cache<Object, Object> cache, MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class),
+                cache.getName(), "cache.manager", "hibernate");
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.slimestore.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the Hibernate second-level cache regions, bound from
+ * {@code app.jpa.second-level-cache.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.jpa.second-level-cache")
+public class SecondLevelCacheProperties {
+
+    /**
+     * Maximum number of entries kept per entity and query cache region.
+     */
+    private long maxSize = 10_000;
+
+    /**
+     * How long an entry stays cached after it was written, bounding how stale an entry
+     * written around the cache, e.g. by another instance, can get.
+     */
+    private Duration expireAfterWrite = Duration.ofHours(1);
+}
@@ -1,22 +1,51 @@
 package com.example.slimestore.controller;
 
+import com.example.slimestore.config.OrderBatchProperties;
+import com.example.slimestore.config.OrderSearchProperties;
+import com.example.slimestore.config.ProductSearchProperties;
 import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.Product;
 import com.example.slimestore.mapper.order.OrderMapper;
+import com.example.slimestore.model.order.CustomerOrderCountDto;
+import com.example.slimestore.model.order.IdempotentOrderResult;
+import com.example.slimestore.model.order.OrderAdmission;
+import com.example.slimestore.model.order.OrderBatchItemResultDto;
+import com.example.slimestore.model.order.OrderBulkDeleteResultDto;
+import com.example.slimestore.model.order.OrderDeleteCriteria;
 import com.example.slimestore.model.order.OrderDto;
+import com.example.slimestore.model.order.OrderStatusDto;
+import com.example.slimestore.service.IdempotentOrderService;
+import com.example.slimestore.service.OrderAdmissionControl;
+import com.example.slimestore.service.OrderBatchService;
 import com.example.slimestore.service.OrderService;
+import com.example.slimestore.service.ProductNameIndex;
+import com.example.slimestore.service.ProductNameIndex.MatchMode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
+import static com.example.slimestore.util.OrderCursorUtil.decodeCursor;
+import static com.example.slimestore.util.OrderCursorUtil.encodeCursor;
+
 /**
  * Controller for managing slime orders.
  */
@@ -26,27 +55,88 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class OrderController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final OrderService orderService;
+    private final OrderBatchService orderBatchService;
+    private final IdempotentOrderService idempotentOrderService;
+    private final OrderAdmissionControl orderAdmissionControl;
     private final OrderMapper orderMapper;
+    private final OrderBatchProperties orderBatchProperties;
+    private final OrderSearchProperties orderSearchProperties;
+    private final ProductNameIndex productNameIndex;
+    private final ProductSearchProperties productSearchProperties;
+    private final ObjectMapper objectMapper;
 
     /**
      * Creates a new slime order.
+     * When the request carries an {@value #IDEMPOTENCY_KEY_HEADER} header, the order is created
+     * at most once per key: a retry with the same key and body gets the response of the first
+     * request again, marked by the {@value #IDEMPOTENT_REPLAYED_HEADER} header, without creating
+     * another order. While the outbox relay is far behind, new orders are delayed or rejected
+     * by admission control; retries of keys whose order was already created are replayed
+     * before admission control, as they create nothing.
      * @param orderDto The order details.
-     * @return The created order with a 201 Created status.
+     * @param idempotencyKey The client chosen key identifying the order across retries, if any.
+     * @return The created order with a 201 Created status, 409 if a request with the same key
+     * is still being processed, 422 if the key was used for a different order, or 429 with a
+     * {@code Retry-After} header if the order was rejected by admission control.
      */
-    @Operation(summary = "Create a new order", description = "Adds a new order to the SlimeStore.")
+    @Operation(summary = "Create a new order", description = "Adds a new order to the SlimeStore, at most once per idempotency key.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Order successfully created"),
-            @ApiResponse(responseCode = "400", description = "Invalid request body")
+            @ApiResponse(responseCode = "201", description = "Order successfully created, or replayed for a known idempotency key"),
+            @ApiResponse(responseCode = "400", description = "Invalid request body or idempotency key"),
+            @ApiResponse(responseCode = "409", description = "A request with the same idempotency key is in progress"),
+            @ApiResponse(responseCode = "422", description = "Idempotency key already used for a different order"),
+            @ApiResponse(responseCode = "429", description = "Outbox backlog too large, retry after the given delay")
     })
     @PostMapping
-    public ResponseEntity<OrderDto> createOrder(@RequestBody OrderDto orderDto) {
+    public ResponseEntity<OrderDto> createOrder(@RequestBody OrderDto orderDto,
+                                                @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+                                                String idempotencyKey) {
+        if (idempotencyKey != null) {
+            return createOrderIdempotently(idempotencyKey, orderDto);
+        }
+        OrderAdmission admission = orderAdmissionControl.admit();
+        if (!admission.isAdmitted()) {
+            return tooManyRequests(admission);
+        }
         Order order = orderMapper.toEntity(orderDto);
         Order newOrder = orderService.createOrder(order);
         OrderDto orderResponse = orderMapper.toDto(newOrder);
         return new ResponseEntity<>(orderResponse, HttpStatus.CREATED);
     }
 
+    /**
+     * Creates many slime orders at once.
+     * Each order succeeds or fails on its own, so one bad order does not fail the others.
+     * @param orderDtos The orders to create.
+     * @return One result per order, in request order, with a 200 OK status, 400 if the batch
+     * is larger than allowed, or 429 with a {@code Retry-After} header if the batch was
+     * rejected by admission control.
+     */
+    @Operation(summary = "Create orders in batch", description = "Adds many orders to the SlimeStore in chunked transactions.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see the per-order results"),
+            @ApiResponse(responseCode = "400", description = "Invalid request body or too many orders"),
+            @ApiResponse(responseCode = "429", description = "Outbox backlog too large, retry after the given delay")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<OrderBatchItemResultDto>> createOrders(@RequestBody List<OrderDto> orderDtos) {
+        if (orderDtos.size() > orderBatchProperties.getMaxSize()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        OrderAdmission admission = orderAdmissionControl.admit();
+        if (!admission.isAdmitted()) {
+            return tooManyRequests(admission);
+        }
+        return new ResponseEntity<>(orderBatchService.createOrders(orderDtos), HttpStatus.OK);
+    }
+
     /**
      * Deletes an order by its ID.
      * @param id The ID of the order to delete.
@@ -63,6 +153,32 @@ public class OrderController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    /**
+     * Deletes many orders at once, selected by exactly one criterion: a list of IDs,
+     * a customer name, or an inclusive ID range.
+     * @param ids The IDs of the orders to delete.
+     * @param customerName The customer whose orders are deleted.
+     * @param fromId The lowest ID of the range to delete.
+     * @param toId The highest ID of the range to delete.
+     * @return The number of deleted orders with a 200 OK status, or 400 if not exactly one criterion is given.
+     */
+    @Operation(summary = "Delete orders in bulk", description = "Deletes all orders matching a criterion in chunked transactions.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders deleted"),
+            @ApiResponse(responseCode = "400", description = "Missing, ambiguous or invalid criterion")
+    })
+    @DeleteMapping
+    public ResponseEntity<OrderBulkDeleteResultDto> deleteOrders(@RequestParam(required = false) List<Long> ids,
+                                                                 @RequestParam(required = false) String customerName,
+                                                                 @RequestParam(required = false) Long fromId,
+                                                                 @RequestParam(required = false) Long toId) {
+        OrderDeleteCriteria criteria = toDeleteCriteria(ids, customerName, fromId, toId);
+        if (criteria == null) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(new OrderBulkDeleteResultDto(orderBatchService.deleteOrders(criteria)), HttpStatus.OK);
+    }
+
     /**
      * Retrieves an order by its ID.
      * @param id The ID of the order to retrieve.
@@ -75,28 +191,169 @@ public class OrderController {
     })
     @GetMapping("/{id}")
     public ResponseEntity<OrderDto> getOrderById(@PathVariable Long id) {
-        Optional<Order> order = orderService.getOrderById(id);
-        return order.map(orderMapper::toDto)
+        Optional<OrderDto> order = orderService.getOrderById(id);
+        return order.map(ResponseEntity::ok)
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Retrieves the status of an order by its ID, without its order products.
+     * @param id The ID of the order.
+     * @return The order status with a 200 OK status, or 404 if not found.
+     */
+    @Operation(summary = "Get an order status", description = "Retrieves the status of an order, served from the read model when possible.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Order found"),
+            @ApiResponse(responseCode = "404", description = "Order not found")
+    })
+    @GetMapping("/{id}/status")
+    public ResponseEntity<OrderStatusDto> getOrderStatus(@PathVariable Long id) {
+        return orderService.getOrderStatus(id)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     /**
-     * Searches for orders by a specific product name.
+     * Counts the orders of a customer.
+     * @param customerName The name of the customer.
+     * @return The number of orders with a 200 OK status.
+     */
+    @Operation(summary = "Count orders of a customer", description = "Counts the orders of a customer, served from the read model when possible.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders counted")
+    })
+    @GetMapping("/count")
+    public ResponseEntity<CustomerOrderCountDto> countOrders(@RequestParam String customerName) {
+        return ResponseEntity.ok(new CustomerOrderCountDto(customerName, orderService.countOrdersByCustomer(customerName)));
+    }
+
+    /**
+     * Searches for orders by a specific product name, one keyset page at a time.
+     * Besides the exact name, the name can be matched as a prefix or with a few typos;
+     * the matching products are then resolved from the product name index before the
+     * orders are read. When more orders follow, the response carries a cursor for the
+     * next page in the {@value #NEXT_CURSOR_HEADER} header.
      * @param itemName The name of the product to filter by.
-     * @return A list of orders containing the specified product.
+     * @param match How the name is matched: exact (the default), prefix or fuzzy.
+     * @param cursor The cursor of the page to return, or none for the first page.
+     * @param size The maximum number of orders in the page, capped by the configured limit.
+     * @return A page of orders containing the specified product.
      */
-    @Operation(summary = "Search for orders", description = "Finds orders that contain a specific product.")
+    @Operation(summary = "Search for orders", description = "Finds orders that contain a specific product, page by page.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Orders found"),
             @ApiResponse(responseCode = "400", description = "Invalid search parameter")
     })
     @GetMapping("/search")
-    public ResponseEntity<List<OrderDto>> findByItemName(@RequestParam String itemName) {
-        List<OrderDto> orders = orderService.findByProductName(itemName)
-                .stream()
-                .map(orderMapper::toDto)
-                .toList();
-        return new ResponseEntity<>(orders, HttpStatus.OK);
+    public ResponseEntity<List<OrderDto>> findByItemName(@RequestParam String itemName,
+                                                         @RequestParam(defaultValue = "exact") String match,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size) {
+        Long afterId;
+        MatchMode matchMode;
+        try {
+            afterId = cursor == null ? null : decodeCursor(cursor);
+            matchMode = MatchMode.valueOf(match.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        if (size != null && size <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        int pageSize = Math.min(size == null ? orderSearchProperties.getDefaultPageSize() : size,
+                orderSearchProperties.getMaxPageSize());
+
+        Window<OrderDto> page;
+        if (matchMode == MatchMode.EXACT) {
+            page = orderService.findByProductName(itemName, afterId, pageSize);
+        } else {
+            List<Long> productIds = productNameIndex.search(itemName, matchMode, productSearchProperties.getMaxLimit())
+                    .stream()
+                    .map(Product::getId)
+                    .toList();
+            page = orderService.findByProductIds(productIds, afterId, pageSize);
+        }
+        List<OrderDto> orders = page.getContent();
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            headers.add(NEXT_CURSOR_HEADER, encodeCursor(orders.getLast().getId()));
+        }
+        return new ResponseEntity<>(orders, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Streams all orders containing a specific product name as newline-delimited JSON.
+     * Orders are written as they are read, so the response size does not affect memory use.
+     * @param itemName The name of the product to filter by.
+     * @return The streamed orders, one JSON document per line.
+     */
+    @Operation(summary = "Stream orders", description = "Streams all orders that contain a specific product as NDJSON.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders streamed"),
+            @ApiResponse(responseCode = "400", description = "Invalid search parameter")
+    })
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamByItemName(@RequestParam String itemName) {
+        StreamingResponseBody body = outputStream -> {
+            ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            orderService.streamByProductName(itemName, order -> {
+                try {
+                    writer.writeValue(outputStream, order);
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private static <T> ResponseEntity<T> tooManyRequests(OrderAdmission admission) {
+        long retryAfterSeconds = Math.max(1, admission.getDelay().plusMillis(999).toSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .build();
+    }
+
+    private ResponseEntity<OrderDto> createOrderIdempotently(String idempotencyKey, OrderDto orderDto) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        Optional<IdempotentOrderResult> completed = idempotentOrderService.findCompleted(idempotencyKey, orderDto);
+        if (completed.isPresent()) {
+            return toResponse(completed.get());
+        }
+        OrderAdmission admission = orderAdmissionControl.admit();
+        if (!admission.isAdmitted()) {
+            return tooManyRequests(admission);
+        }
+        return toResponse(idempotentOrderService.createOrder(idempotencyKey, orderDto));
+    }
+
+    private static ResponseEntity<OrderDto> toResponse(IdempotentOrderResult result) {
+        return switch (result.getOutcome()) {
+            case CREATED -> new ResponseEntity<>(result.getOrder(), HttpStatus.CREATED);
+            case REPLAYED -> ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                    .body(result.getOrder());
+            case KEY_REUSED -> new ResponseEntity<>(HttpStatus.UNPROCESSABLE_ENTITY);
+            case IN_PROGRESS -> new ResponseEntity<>(HttpStatus.CONFLICT);
+        };
+    }
+
+    private static OrderDeleteCriteria toDeleteCriteria(List<Long> ids, String customerName, Long fromId, Long toId) {
+        if (ids != null && customerName == null && fromId == null && toId == null) {
+            return ids.isEmpty() ? null : OrderDeleteCriteria.byIds(ids);
+        }
+        if (customerName != null && ids == null && fromId == null && toId == null) {
+            return customerName.isBlank() ? null : OrderDeleteCriteria.byCustomerName(customerName);
+        }
+        if (fromId != null && toId != null && ids == null && customerName == null) {
+            return fromId > toId ? null : OrderDeleteCriteria.byIdRange(fromId, toId);
+        }
+        return null;
     }
-}
\ No newline at end of file
+}
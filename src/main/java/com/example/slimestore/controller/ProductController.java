@@ -0,0 +1,94 @@
+package com.example.slimestore.controller;
+
+import com.example.slimestore.config.ProductSalesProperties;
+import com.example.slimestore.config.ProductSearchProperties;
+import com.example.slimestore.mapper.product.ProductMapper;
+import com.example.slimestore.model.product.ProductDto;
+import com.example.slimestore.model.product.ProductSalesDto;
+import com.example.slimestore.service.ProductNameIndex;
+import com.example.slimestore.service.ProductNameIndex.MatchMode;
+import com.example.slimestore.service.ProductSalesCounters;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Controller for looking up slime products.
+ */
+@Tag(name = "Product Catalog", description = "Endpoints for searching the product catalog and its sales.")
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+public class ProductController {
+
+    private final ProductNameIndex productNameIndex;
+    private final ProductMapper productMapper;
+    private final ProductSearchProperties productSearchProperties;
+    private final ProductSalesCounters productSalesCounters;
+    private final ProductSalesProperties productSalesProperties;
+
+    /**
+     * Searches products by name from the in-memory product name index.
+     * @param query The name or name prefix to search for.
+     * @param match How the name is matched: exact, prefix (the default) or fuzzy.
+     * @param limit The maximum number of products, capped by the configured limit.
+     * @return The matching products, best matches first.
+     */
+    @Operation(summary = "Search for products", description = "Finds products by exact name, name prefix or a name with typos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products found"),
+            @ApiResponse(responseCode = "400", description = "Invalid search parameter")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductDto>> search(@RequestParam String query,
+                                                   @RequestParam(defaultValue = "prefix") String match,
+                                                   @RequestParam(required = false) Integer limit) {
+        MatchMode matchMode;
+        try {
+            matchMode = MatchMode.valueOf(match.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        if (limit != null && limit <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        int maxResults = Math.min(limit == null ? productSearchProperties.getDefaultLimit() : limit,
+                productSearchProperties.getMaxLimit());
+
+        List<ProductDto> products = productNameIndex.search(query, matchMode, maxResults).stream()
+                .map(productMapper::toDto)
+                .toList();
+        return new ResponseEntity<>(products, HttpStatus.OK);
+    }
+
+    /**
+     * Lists the products ordered in the largest quantities, from the in-memory sales counters.
+     * @param limit The maximum number of products, capped by the configured limit.
+     * @return The top-selling products, largest quantity first.
+     */
+    @Operation(summary = "Top-selling products", description = "Lists the products ordered in the largest quantities.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products listed"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    @GetMapping("/top-selling")
+    public ResponseEntity<List<ProductSalesDto>> topSelling(@RequestParam(required = false) Integer limit) {
+        if (limit != null && limit <= 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        int maxResults = Math.min(limit == null ? productSalesProperties.getDefaultLimit() : limit,
+                productSalesProperties.getMaxLimit());
+        return new ResponseEntity<>(productSalesCounters.topSelling(maxResults), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.slimestore.jpa;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * An idempotency key a client sent with an order creation, and the response it received.
+ * The key row is inserted in the transaction that creates the order, so the order exists
+ * exactly when its key does, and a retry with the same key is answered from this row.
+ * A key created in memory is always new to the repository, so saving it inserts right
+ * away instead of selecting it first; an existing key fails the insert on its primary key.
+ */
+@Entity
+@Data
+@Table(name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+@NoArgsConstructor
+public class IdempotencyKey implements Persistable<String> {
+
+    /**
+     * The value of the {@code Idempotency-Key} request header.
+     */
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    /**
+     * SHA-256 of the request body, to tell a retry from a different request reusing the key.
+     */
+    private String requestHash;
+
+    /**
+     * The ID of the order created for the key.
+     */
+    private Long orderId;
+
+    /**
+     * The created order as returned to the client, in JSON.
+     */
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    private String response;
+
+    private LocalDateTime createdAt;
+
+    /**
+     * Whether the key has neither been inserted nor loaded yet.
+     */
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean isNew = true;
+
+    public IdempotencyKey(String key, String requestHash, Long orderId, String response, LocalDateTime createdAt) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.orderId = orderId;
+        this.response = response;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        isNew = false;
+    }
+}
@@ -12,17 +12,20 @@ import java.util.List;
  */
 @Entity
 @Data
-@Table(name = "orders")
+@Table(name = "orders",
+        indexes = @Index(name = "idx_orders_customer_name_id", columnList = "customer_name, id"))
 @AllArgsConstructor
 @NoArgsConstructor
 public class Order {
 
     /**
      * The unique identifier for the order.
-     * This ID is automatically generated by the database.
+     * This ID is drawn from a database sequence in blocks of 50, so new orders
+     * can be inserted in JDBC batches.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -11,13 +11,15 @@ import lombok.NoArgsConstructor;
  */
 @Entity
 @Data
-@Table(name = "order_products")
+@Table(name = "order_products",
+        indexes = @Index(name = "idx_order_products_product_id_order_id", columnList = "product_id, order_id"))
 @AllArgsConstructor
 @NoArgsConstructor
 public class OrderProduct {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_products_seq")
+    @SequenceGenerator(name = "order_products_seq", sequenceName = "order_products_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -7,14 +7,32 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "outbox_messages")
+@Table(name = "outbox_messages",
+        indexes = @Index(name = "idx_outbox_messages_created_at_id", columnList = "created_at, id"))
 public class OutboxMessage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_messages_seq")
+    @SequenceGenerator(name = "outbox_messages_seq", sequenceName = "outbox_messages_seq", allocationSize = 50)
     private Long id;
 
     private String topic;
     private String payload;
     private LocalDateTime createdAt;
-}
\ No newline at end of file
+
+    /**
+     * The ID of the order the event is about, used as the Kafka record key.
+     * Null for messages written before events were keyed.
+     */
+    private Long aggregateId;
+
+    /**
+     * The type of the event, the name of an {@link Order.OrderStatus}.
+     */
+    private String eventType;
+
+    /**
+     * The customer who placed the order, set for creations only.
+     */
+    private String customerName;
+}
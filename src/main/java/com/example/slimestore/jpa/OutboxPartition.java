@@ -0,0 +1,38 @@
+package com.example.slimestore.jpa;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A hash partition of the outbox, one row per relay worker slot.
+ * A relay worker leases a partition by locking its row for the duration of a batch,
+ * so across all instances at most one worker relays the messages of any given order.
+ */
+@Entity
+@Data
+@Table(name = "outbox_partitions")
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxPartition {
+
+    /**
+     * The partition number, the remainder of the order ID divided by the partition count.
+     */
+    @Id
+    private Integer id;
+
+    /**
+     * Creation time of the last message of the partition relayed in the append-only
+     * storage mode, null until one has been relayed.
+     */
+    private LocalDateTime checkpointCreatedAt;
+
+    /**
+     * ID of the last message of the partition relayed in the append-only storage mode.
+     */
+    private Long checkpointId;
+}
@@ -0,0 +1,46 @@
+package com.example.slimestore.listener;
+
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.model.order.OrderEvent;
+import com.example.slimestore.service.OrderCache;
+import com.example.slimestore.util.OrderEventCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import static com.example.slimestore.service.OrderService.ORDER_TOPIC;
+
+/**
+ * Keeps the order cache of this instance coherent with writes made by other instances.
+ * Every instance consumes the orders topic in its own consumer group, named after
+ * {@code app.instance-id}, which must differ between instances and defaults to the host
+ * name, so each one sees every order event and evicts the orders that were deleted
+ * elsewhere. The group is the same across restarts of an instance, which resumes from
+ * its committed offset. Events are read in whichever format they were published in.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderCacheInvalidationListener {
+
+    private final OrderCache orderCache;
+
+    @KafkaListener(
+            topics = ORDER_TOPIC,
+            groupId = "${spring.application.name}-order-cache-${app.instance-id}",
+            properties = "auto.offset.reset=latest",
+            autoStartup = "${app.orders.cache.invalidation-listener-enabled:true}")
+    public void onOrderEvent(ConsumerRecord<String, byte[]> record) {
+        try {
+            OrderEvent event = OrderEventCodec.read(record.headers(), record.value());
+            if (event.getType() == Order.OrderStatus.ORDER_DELETED) {
+                orderCache.evict(event.getOrderId());
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping unreadable order event at offset {} of partition {}: {}",
+                    record.offset(), record.partition(), e.getMessage());
+        }
+    }
+}
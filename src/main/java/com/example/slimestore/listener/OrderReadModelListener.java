@@ -0,0 +1,107 @@
+package com.example.slimestore.listener;
+
+import com.example.slimestore.service.OrderReadModel;
+import com.example.slimestore.util.OrderEventCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import static com.example.slimestore.service.OrderService.ORDER_TOPIC;
+
+/**
+ * Feeds the {@link OrderReadModel} from the orders topic.
+ * Every instance consumes the topic in its own consumer group, named after
+ * {@code app.instance-id}, and replays it from the beginning whenever partitions are
+ * assigned, which rebuilds the model at startup. The model counts as caught up once
+ * every partition has been consumed up to the end offset it had when the replay started.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.orders.read-model", name = "enabled")
+public class OrderReadModelListener implements ConsumerSeekAware {
+
+    public static final String LISTENER_ID = "orderReadModel";
+
+    private static final long END_OFFSETS_TIMEOUT_SECONDS = 10;
+
+    private final OrderReadModel orderReadModel;
+    private final KafkaAdmin kafkaAdmin;
+
+    private final Map<TopicPartition, Long> replayEndOffsets = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        orderReadModel.reset();
+        replayEndOffsets.clear();
+        Map<TopicPartition, Long> endOffsets = endOffsets(assignments);
+        if (endOffsets != null) {
+            endOffsets.forEach((partition, endOffset) -> {
+                if (endOffset > 0) {
+                    replayEndOffsets.put(partition, endOffset);
+                }
+            });
+            if (replayEndOffsets.isEmpty()) {
+                orderReadModel.markCaughtUp();
+            }
+        }
+        callback.seekToBeginning(assignments.keySet());
+    }
+
+    @KafkaListener(
+            id = LISTENER_ID,
+            topics = ORDER_TOPIC,
+            groupId = "${spring.application.name}-order-read-model-${app.instance-id}",
+            properties = "auto.offset.reset=earliest")
+    public void onOrderEvent(ConsumerRecord<String, byte[]> record) {
+        try {
+            orderReadModel.apply(OrderEventCodec.read(record.headers(), record.value()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping unreadable order event at offset {} of partition {}: {}",
+                    record.offset(), record.partition(), e.getMessage());
+        }
+        if (!replayEndOffsets.isEmpty()) {
+            replayEndOffsets.computeIfPresent(new TopicPartition(record.topic(), record.partition()),
+                    (partition, endOffset) -> record.offset() + 1 >= endOffset ? null : endOffset);
+            if (replayEndOffsets.isEmpty()) {
+                log.info("Order read model caught up with the orders topic");
+                orderReadModel.markCaughtUp();
+            }
+        }
+    }
+
+    private Map<TopicPartition, Long> endOffsets(Map<TopicPartition, Long> assignments) {
+        try (AdminClient adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> offsets = adminClient
+                    .listOffsets(assignments.keySet().stream()
+                            .collect(Collectors.toMap(partition -> partition, partition -> OffsetSpec.latest())))
+                    .all()
+                    .get(END_OFFSETS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return offsets.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().offset()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading end offsets of the orders topic", e);
+        } catch (ExecutionException | TimeoutException e) {
+            // without end offsets the model never reports itself caught up, and counts keep coming from the database
+            log.warn("Cannot read end offsets of the orders topic: {}", e.getMessage());
+            return null;
+        }
+    }
+}
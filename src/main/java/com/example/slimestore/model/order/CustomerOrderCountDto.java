@@ -0,0 +1,18 @@
+package com.example.slimestore.model.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of existing orders of a customer.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerOrderCountDto {
+
+    private String customerName;
+
+    private long orderCount;
+}
@@ -0,0 +1,36 @@
+package com.example.slimestore.model.order;
+
+import lombok.Value;
+
+/**
+ * Outcome of an order creation carrying an idempotency key.
+ */
+@Value
+public class IdempotentOrderResult {
+
+    Outcome outcome;
+
+    /**
+     * The order created for the key, unless the key was reused or is still in progress.
+     */
+    OrderDto order;
+
+    public enum Outcome {
+        /**
+         * The order was created by this request.
+         */
+        CREATED,
+        /**
+         * The order had already been created for the key and its response is replayed.
+         */
+        REPLAYED,
+        /**
+         * The key was already used for a different request body.
+         */
+        KEY_REUSED,
+        /**
+         * A request with the same key is still being processed.
+         */
+        IN_PROGRESS
+    }
+}
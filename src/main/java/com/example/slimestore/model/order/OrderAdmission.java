@@ -0,0 +1,33 @@
+package com.example.slimestore.model.order;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Whether an order write is admitted, and how long it was held back or the client should wait.
+ */
+@Value
+public class OrderAdmission {
+
+    private static final OrderAdmission ADMITTED = new OrderAdmission(true, Duration.ZERO);
+
+    boolean admitted;
+
+    /**
+     * How long an admitted write was delayed, or how long a rejected client should wait before retrying.
+     */
+    Duration delay;
+
+    public static OrderAdmission admitted() {
+        return ADMITTED;
+    }
+
+    public static OrderAdmission delayed(Duration delay) {
+        return new OrderAdmission(true, delay);
+    }
+
+    public static OrderAdmission rejected(Duration retryAfter) {
+        return new OrderAdmission(false, retryAfter);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.slimestore.model.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one order of a batch creation request.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderBatchItemResultDto {
+
+    /**
+     * Position of the order in the request body.
+     */
+    private int index;
+
+    private Status status;
+
+    /**
+     * The ID of the created order, if it was created.
+     */
+    private Long orderId;
+
+    /**
+     * Why the order was not created, if it failed.
+     */
+    private String error;
+
+    public static OrderBatchItemResultDto created(int index, Long orderId) {
+        return new OrderBatchItemResultDto(index, Status.CREATED, orderId, null);
+    }
+
+    public static OrderBatchItemResultDto failed(int index, String error) {
+        return new OrderBatchItemResultDto(index, Status.FAILED, null, error);
+    }
+
+    public enum Status {
+        CREATED, FAILED
+    }
+}
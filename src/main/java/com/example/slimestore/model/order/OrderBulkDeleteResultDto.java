@@ -0,0 +1,19 @@
+package com.example.slimestore.model.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk delete request.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderBulkDeleteResultDto {
+
+    /**
+     * Number of orders deleted.
+     */
+    private int deletedCount;
+}
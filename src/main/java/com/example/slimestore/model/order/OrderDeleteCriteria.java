@@ -0,0 +1,37 @@
+package com.example.slimestore.model.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Selects the orders removed by a bulk delete. Exactly one criterion is expected:
+ * a list of IDs, a customer name, or an inclusive ID range.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderDeleteCriteria {
+
+    private List<Long> ids;
+
+    private String customerName;
+
+    private Long fromId;
+
+    private Long toId;
+
+    public static OrderDeleteCriteria byIds(List<Long> ids) {
+        return new OrderDeleteCriteria(ids, null, null, null);
+    }
+
+    public static OrderDeleteCriteria byCustomerName(String customerName) {
+        return new OrderDeleteCriteria(null, customerName, null, null);
+    }
+
+    public static OrderDeleteCriteria byIdRange(long fromId, long toId) {
+        return new OrderDeleteCriteria(null, null, fromId, toId);
+    }
+}
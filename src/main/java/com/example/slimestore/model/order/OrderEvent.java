@@ -0,0 +1,29 @@
+package com.example.slimestore.model.order;
+
+import com.example.slimestore.jpa.Order;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * An order status change, as published to the orders topic.
+ */
+@Value
+public class OrderEvent {
+
+    Order.OrderStatus type;
+
+    Long orderId;
+
+    /**
+     * The customer who placed the order, carried by creations in schema version 2 and
+     * null otherwise.
+     */
+    String customerName;
+
+    /**
+     * When the change was written to the outbox, or null for events read from the
+     * string format, which does not carry it.
+     */
+    Instant occurredAt;
+}
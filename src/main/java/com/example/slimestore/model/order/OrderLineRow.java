@@ -0,0 +1,18 @@
+package com.example.slimestore.model.order;
+
+import lombok.Value;
+
+/**
+ * One flat row of an order read: the order with one of its order products and that
+ * product, or with nulls in the order product columns for an order without any.
+ */
+@Value
+public class OrderLineRow {
+
+    Long orderId;
+    String customerName;
+    Long orderProductId;
+    Long productId;
+    String productName;
+    Integer quantity;
+}
@@ -0,0 +1,24 @@
+package com.example.slimestore.model.order;
+
+import com.example.slimestore.jpa.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Status of an existing order, without its order products.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderStatusDto {
+
+    private Long id;
+
+    /**
+     * The customer who placed the order, null if unknown to the read model.
+     */
+    private String customerName;
+
+    private Order.OrderStatus status;
+}
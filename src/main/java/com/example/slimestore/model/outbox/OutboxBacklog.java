@@ -0,0 +1,24 @@
+package com.example.slimestore.model.outbox;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Size of the outbox and creation time of its oldest message, measured in one query.
+ */
+@Value
+public class OutboxBacklog {
+
+    long size;
+    LocalDateTime oldestCreatedAt;
+
+    /**
+     * @param now The current time, in the zone outbox timestamps are written in.
+     * @return How long the oldest message has been waiting, or zero for an empty outbox.
+     */
+    public Duration oldestAge(LocalDateTime now) {
+        return oldestCreatedAt == null ? Duration.ZERO : Duration.between(oldestCreatedAt, now);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.slimestore.model.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Total quantity of a product over the order products of the orders in scope.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSalesDto {
+
+    private Long productId;
+
+    private String productName;
+
+    private long quantity;
+}
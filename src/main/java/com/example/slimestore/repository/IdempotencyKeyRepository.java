@@ -0,0 +1,21 @@
+package com.example.slimestore.repository;
+
+import com.example.slimestore.jpa.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Deletes the keys created before the given time in one statement.
+     *
+     * @param before The creation time all deleted keys are older than.
+     * @return The number of deleted keys.
+     */
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.createdAt < :before")
+    int deleteCreatedBefore(LocalDateTime before);
+}
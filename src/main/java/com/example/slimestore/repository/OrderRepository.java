@@ -1,17 +1,151 @@
 package com.example.slimestore.repository;
 
 import com.example.slimestore.jpa.Order;
+import com.example.slimestore.model.order.OrderLineRow;
+import com.example.slimestore.model.product.ProductSalesDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * Reads the given orders as flat rows, one per order product, projected straight from
+     * the columns without loading entities into the persistence context.
+     *
+     * @param ids The IDs of the orders to read.
+     * @return The rows ordered by order ID and order product ID; an order without order
+     * products yields one row with nulls in the order product columns.
+     */
+    @Query("select new com.example.slimestore.model.order.OrderLineRow("
+            + "o.id, o.customerName, line.id, p.id, p.name, line.quantity) "
+            + "from Order o left join o.orderProducts line left join line.product p "
+            + "where o.id in :ids order by o.id, line.id")
+    List<OrderLineRow> findOrderRowsByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
-     * Finds orders that contain a specific product by name.
-     * This query traverses the relationships from Order -> OrderItem -> Product.
+     * Finds the IDs of orders that contain a specific product by name, seeking past a
+     * keyset position instead of counting an offset.
      *
      * @param productName The name of the product to search for.
-     * @return A list of orders matching the search criteria.
+     * @param afterId Only orders with a greater ID are returned.
+     * @param limit The maximum number of IDs to return.
+     * @return Distinct order IDs in ascending order.
+     */
+    @Query("select distinct line.order.id from OrderProduct line "
+            + "where line.product.name = :productName and line.order.id > :afterId "
+            + "order by line.order.id")
+    List<Long> findOrderIdsByProductName(@Param("productName") String productName,
+                                         @Param("afterId") long afterId,
+                                         Limit limit);
+
+    /**
+     * Finds the IDs of orders that contain any of the given products, seeking past a
+     * keyset position instead of counting an offset.
+     *
+     * @param productIds The IDs of the products to search for.
+     * @param afterId Only orders with a greater ID are returned.
+     * @param limit The maximum number of IDs to return.
+     * @return Distinct order IDs in ascending order.
+     */
+    @Query("select distinct line.order.id from OrderProduct line "
+            + "where line.product.id in :productIds and line.order.id > :afterId "
+            + "order by line.order.id")
+    List<Long> findOrderIdsByProductIds(@Param("productIds") Collection<Long> productIds,
+                                        @Param("afterId") long afterId,
+                                        Limit limit);
+
+    /**
+     * Streams the IDs of orders that contain a specific product by name from a database
+     * cursor, fetching a bounded number of rows at a time. Must be consumed inside a
+     * transaction and closed afterwards.
+     *
+     * @param productName The name of the product to search for.
+     * @return Distinct order IDs in ascending order.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select distinct line.order.id from OrderProduct line "
+            + "where line.product.name = :productName "
+            + "order by line.order.id")
+    Stream<Long> streamOrderIdsByProductName(@Param("productName") String productName);
+
+    /**
+     * Finds which of the given order IDs exist.
+     *
+     * @param ids The order IDs to check.
+     * @return The existing order IDs in ascending order.
+     */
+    @Query("select o.id from Order o where o.id in :ids order by o.id")
+    List<Long> findOrderIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds the IDs of the orders of a customer, seeking past a keyset position.
+     *
+     * @param customerName The name of the customer.
+     * @param afterId Only orders with a greater ID are returned.
+     * @param limit The maximum number of IDs to return.
+     * @return Order IDs in ascending order.
+     */
+    @Query("select o.id from Order o where o.customerName = :customerName and o.id > :afterId order by o.id")
+    List<Long> findOrderIdsByCustomerName(@Param("customerName") String customerName,
+                                          @Param("afterId") long afterId,
+                                          Limit limit);
+
+    /**
+     * Counts the orders of a customer.
+     *
+     * @param customerName The name of the customer.
+     * @return The number of orders of the customer.
+     */
+    long countByCustomerName(String customerName);
+
+    /**
+     * Finds the IDs of the orders within an ID range.
+     *
+     * @param fromId The lowest ID, inclusive.
+     * @param toId The highest ID, inclusive.
+     * @param limit The maximum number of IDs to return.
+     * @return Order IDs in ascending order.
+     */
+    @Query("select o.id from Order o where o.id between :fromId and :toId order by o.id")
+    List<Long> findOrderIdsByIdBetween(@Param("fromId") long fromId, @Param("toId") long toId, Limit limit);
+
+    /**
+     * Sums the ordered quantity of every product over all order products.
+     *
+     * @return One row per ordered product.
+     */
+    @Query("select new com.example.slimestore.model.product.ProductSalesDto(p.id, p.name, sum(line.quantity)) "
+            + "from OrderProduct line join line.product p group by p.id, p.name")
+    List<ProductSalesDto> sumQuantitiesByProduct();
+
+    /**
+     * Sums the ordered quantity of every product over the order products of the given orders.
+     *
+     * @param orderIds The IDs of the orders.
+     * @return One row per product ordered by any of the orders.
+     */
+    @Query("select new com.example.slimestore.model.product.ProductSalesDto(p.id, p.name, sum(line.quantity)) "
+            + "from OrderProduct line join line.product p where line.order.id in :orderIds group by p.id, p.name")
+    List<ProductSalesDto> sumQuantitiesByProductForOrders(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Deletes the order products of the given orders with a single statement, bypassing
+     * the persistence context and its cascades.
+     *
+     * @param orderIds The IDs of the orders whose order products are deleted.
+     * @return The number of deleted order products.
      */
-    List<Order> findByOrderProducts_Product_Name(String productName);
-}
\ No newline at end of file
+    @Modifying
+    @Query("delete from OrderProduct line where line.order.id in :orderIds")
+    int deleteOrderProductsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+}
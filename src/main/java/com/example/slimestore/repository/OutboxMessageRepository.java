@@ -1,8 +1,96 @@
 package com.example.slimestore.repository;
 
 import com.example.slimestore.jpa.OutboxMessage;
+import com.example.slimestore.model.outbox.OutboxBacklog;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Claims the oldest outbox messages of one hash partition for relaying, in
+     * {@code createdAt}/id order. A message belongs to the partition of its order ID modulo
+     * the partition count; messages without an order ID belong to partition 0.
+     * The rows stay locked until the surrounding transaction ends, and rows already
+     * locked by another relay instance are skipped ({@code FOR UPDATE SKIP LOCKED}).
+     * Dialects without skip-locked support, such as H2, fall back to a plain
+     * {@code FOR UPDATE}.
+     *
+     * @param partitionCount The number of partitions.
+     * @param partition The partition to claim from.
+     * @param limit The maximum number of messages to claim.
+     * @return The claimed messages, oldest first.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // -2 = skip locked
+    @Query("select m from OutboxMessage m where mod(coalesce(m.aggregateId, 0), :partitionCount) = :partition "
+            + "order by m.createdAt, m.id")
+    List<OutboxMessage> claimBatch(int partitionCount, int partition, Limit limit);
+
+    /**
+     * Reads the next messages of one hash partition past its checkpoint, in
+     * {@code createdAt}/id order, for relaying in the append-only storage mode.
+     * The caller holds the partition lease, so the rows are not locked.
+     *
+     * @param partitionCount The number of partitions.
+     * @param partition The partition to read from.
+     * @param afterCreatedAt The creation time of the checkpoint.
+     * @param afterId The message ID of the checkpoint.
+     * @param visibleUntil The creation time of the youngest message that may be read.
+     * @param limit The maximum number of messages to read.
+     * @return The messages, oldest first.
+     */
+    @Query("select m from OutboxMessage m where mod(coalesce(m.aggregateId, 0), :partitionCount) = :partition "
+            + "and (m.createdAt > :afterCreatedAt or (m.createdAt = :afterCreatedAt and m.id > :afterId)) "
+            + "and m.createdAt <= :visibleUntil "
+            + "order by m.createdAt, m.id")
+    List<OutboxMessage> findBatchAfter(int partitionCount, int partition, LocalDateTime afterCreatedAt, long afterId,
+                                       LocalDateTime visibleUntil, Limit limit);
+
+    /**
+     * Deletes the relayed messages created before the given time in one statement,
+     * for the append-only storage mode. A message counts as relayed when it is not past
+     * the checkpoint of its partition.
+     *
+     * @param before The creation time all deleted messages are older than.
+     * @param partitionCount The number of partitions.
+     * @return The number of deleted messages.
+     */
+    @Modifying
+    @Query("delete from OutboxMessage m where m.createdAt < :before and exists (select 1 from OutboxPartition p "
+            + "where p.id = mod(coalesce(m.aggregateId, 0), :partitionCount) "
+            + "and (m.createdAt < p.checkpointCreatedAt "
+            + "or (m.createdAt = p.checkpointCreatedAt and m.id <= p.checkpointId)))")
+    int deleteRelayedBefore(LocalDateTime before, int partitionCount);
+
+    /**
+     * Measures how many messages wait in the outbox and since when the oldest one waits.
+     *
+     * @return The backlog; its oldest creation time is null when the outbox is empty.
+     */
+    @Query("select new com.example.slimestore.model.outbox.OutboxBacklog(count(m), min(m.createdAt)) "
+            + "from OutboxMessage m")
+    OutboxBacklog measureBacklog();
+
+    /**
+     * Measures how many messages wait past the checkpoint of their partition and since
+     * when the oldest one waits, for the append-only storage mode.
+     *
+     * @param partitionCount The number of partitions.
+     * @return The backlog; its oldest creation time is null when nothing waits.
+     */
+    @Query("select new com.example.slimestore.model.outbox.OutboxBacklog(count(m), min(m.createdAt)) "
+            + "from OutboxMessage m join OutboxPartition p on p.id = mod(coalesce(m.aggregateId, 0), :partitionCount) "
+            + "where p.checkpointCreatedAt is null or m.createdAt > p.checkpointCreatedAt "
+            + "or (m.createdAt = p.checkpointCreatedAt and m.id > p.checkpointId)")
+    OutboxBacklog measureUnrelayedBacklog(int partitionCount);
+}
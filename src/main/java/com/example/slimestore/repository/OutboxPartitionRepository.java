@@ -0,0 +1,27 @@
+package com.example.slimestore.repository;
+
+import com.example.slimestore.jpa.OutboxPartition;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Optional;
+
+public interface OutboxPartitionRepository extends JpaRepository<OutboxPartition, Integer> {
+
+    /**
+     * Leases an outbox partition until the surrounding transaction ends.
+     * A partition leased by another relay worker is skipped ({@code FOR UPDATE SKIP LOCKED});
+     * on dialects without skip-locked support, such as H2, the call waits for the lease instead.
+     *
+     * @param id The partition number.
+     * @return The leased partition, or empty if it is leased elsewhere or does not exist.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // -2 = skip locked
+    @Query("select p from OutboxPartition p where p.id = :id")
+    Optional<OutboxPartition> leasePartition(int id);
+}
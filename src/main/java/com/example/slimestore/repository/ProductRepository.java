@@ -1,7 +1,13 @@
 package com.example.slimestore.repository;
 
 import com.example.slimestore.jpa.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -17,4 +23,14 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @return An {@link Optional} containing the found product, or an empty Optional if not found.
      */
     Optional<Product> findByName(String name);
-}
\ No newline at end of file
+
+    /**
+     * Finds all {@link Product}s whose name is one of the given names, in a single query.
+     * Results are kept in the query cache until the products table is written.
+     *
+     * @param names The names of the products to find.
+     * @return The found products, ordered by id.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Product> findByNameInOrderByIdAsc(Collection<String> names);
+}
@@ -0,0 +1,45 @@
+package com.example.slimestore.scheduler;
+
+import com.example.slimestore.config.OutboxProperties;
+import com.example.slimestore.repository.OutboxMessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reclaims the outbox in the append-only storage mode.
+ * Relayed messages older than the retention are deleted with a single range statement
+ * over the creation time index, so the cleanup cost depends on how often it runs rather
+ * than on how many events were relayed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.outbox", name = "storage-mode", havingValue = "append-only")
+public class OutboxLogTruncator {
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties outboxProperties;
+
+    /**
+     * Deletes the relayed messages that are older than the retention.
+     *
+     * @return The number of deleted messages.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.append-only.truncate-interval:1m}")
+    public int truncate() {
+        LocalDateTime before = LocalDateTime.now().minus(outboxProperties.getAppendOnly().getRetention());
+        Integer deleted = transactionTemplate.execute(status -> outboxMessageRepository.deleteRelayedBefore(
+                before, outboxProperties.getRelay().getWorkers()));
+        if (deleted != null && deleted > 0) {
+            log.info("Truncated {} relayed outbox messages created before {}", deleted, before);
+        }
+        return deleted != null ? deleted : 0;
+    }
+}
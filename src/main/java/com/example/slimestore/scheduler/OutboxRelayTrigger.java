@@ -0,0 +1,170 @@
+package com.example.slimestore.scheduler;
+
+import com.example.slimestore.config.OutboxProperties;
+import com.example.slimestore.service.OutboxMessagesSavedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.example.slimestore.config.SchedulingConfig.OUTBOX_RELAY_EXECUTOR;
+
+/**
+ * Triggers outbox relay runs on the relay executor.
+ * Writes of this instance wake the relay up as soon as they commit, or, in the append-only
+ * storage mode, once their messages are older than the visibility delay and so can be
+ * relayed; a wake-up that finds a run in flight makes it run once more when it finishes,
+ * so no committed message waits for the next poll. Polling only picks up messages written elsewhere or left behind by
+ * failed sends: the poll interval is reset to its minimum whenever messages are relayed
+ * and grows with every idle run up to {@code app.outbox.delay}.
+ * A bulkhead bounds how many runs are in flight; a poll that finds it full is skipped,
+ * so a slow relay neither piles up runs nor blocks the scheduler thread shared with
+ * other scheduled tasks.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.outbox.relay", name = "enabled", matchIfMissing = true)
+public class OutboxRelayTrigger implements SchedulingConfigurer {
+
+    private final OutboxRelayerScheduler outboxRelayerScheduler;
+    private final TaskExecutor relayExecutor;
+    private final Semaphore bulkhead;
+    private final Duration minPollInterval;
+    private final Duration maxPollInterval;
+    private final double backoffMultiplier;
+    private final Duration wakeUpDelay;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final Counter skippedRuns;
+    private final Counter wakeUps;
+
+    private volatile Duration pollInterval;
+
+    public OutboxRelayTrigger(OutboxRelayerScheduler outboxRelayerScheduler,
+                              @Qualifier(OUTBOX_RELAY_EXECUTOR) TaskExecutor relayExecutor,
+                              OutboxProperties outboxProperties,
+                              MeterRegistry meterRegistry) {
+        this.outboxRelayerScheduler = outboxRelayerScheduler;
+        this.relayExecutor = relayExecutor;
+        this.bulkhead = new Semaphore(outboxProperties.getRelay().getMaxConcurrency());
+        this.maxPollInterval = Duration.ofMillis(outboxProperties.getDelay());
+        this.minPollInterval = min(outboxProperties.getRelay().getMinPollInterval(), maxPollInterval);
+        this.backoffMultiplier = outboxProperties.getRelay().getBackoffMultiplier();
+        this.wakeUpDelay = outboxProperties.getStorageMode() == OutboxProperties.StorageMode.APPEND_ONLY
+                ? outboxProperties.getAppendOnly().getVisibilityDelay() : Duration.ZERO;
+        this.pollInterval = minPollInterval;
+        this.skippedRuns = Counter.builder("outbox.relay.skipped")
+                .description("Relay polls skipped because the maximum number of runs was in flight")
+                .register(meterRegistry);
+        this.wakeUps = Counter.builder("outbox.relay.wakeups")
+                .description("Relay wake-ups signalled by committed outbox writes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addTriggerTask(this::trigger, this::nextPoll);
+    }
+
+    /**
+     * Polls the outbox, unless the maximum number of runs is already in flight.
+     */
+    public void trigger() {
+        if (!bulkhead.tryAcquire()) {
+            log.debug("Outbox relay still busy, skipping this poll");
+            skippedRuns.increment();
+            return;
+        }
+        startRun();
+    }
+
+    /**
+     * Wakes the relay up once outbox messages have been committed.
+     *
+     * @param event The saved outbox messages.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOutboxMessagesSaved(OutboxMessagesSavedEvent event) {
+        wakeUps.increment();
+        pollInterval = minPollInterval;
+        if (wakeUpDelay.isPositive()) {
+            CompletableFuture.runAsync(this::wakeUp,
+                    CompletableFuture.delayedExecutor(wakeUpDelay.toMillis(), TimeUnit.MILLISECONDS));
+        } else {
+            wakeUp();
+        }
+    }
+
+    Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    private Instant nextPoll(TriggerContext context) {
+        Instant lastCompletion = context.lastCompletion();
+        Instant from = lastCompletion != null ? lastCompletion : context.getClock().instant();
+        return from.plus(pollInterval);
+    }
+
+    private void wakeUp() {
+        wakeUpPending.set(true);
+        startPendingRun();
+    }
+
+    private void startPendingRun() {
+        // a run finishing concurrently either sees the pending flag or releases its permit first
+        if (bulkhead.tryAcquire()) {
+            if (wakeUpPending.getAndSet(false)) {
+                startRun();
+            } else {
+                bulkhead.release();
+            }
+        }
+    }
+
+    private void startRun() {
+        try {
+            relayExecutor.execute(this::relay);
+        } catch (TaskRejectedException e) {
+            bulkhead.release();
+            log.warn("Outbox relay run rejected: {}", e.getMessage());
+        }
+    }
+
+    private void relay() {
+        int relayed = 0;
+        try {
+            wakeUpPending.set(false);
+            relayed = outboxRelayerScheduler.processOutboxMessages();
+        } catch (RuntimeException e) {
+            log.error("Outbox relay run failed", e);
+        } finally {
+            bulkhead.release();
+        }
+        pollInterval = relayed > 0 ? minPollInterval : backOff(pollInterval);
+        if (wakeUpPending.get()) {
+            startPendingRun();
+        }
+    }
+
+    private Duration backOff(Duration interval) {
+        return min(Duration.ofNanos((long) (interval.toNanos() * backoffMultiplier)), maxPollInterval);
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
@@ -1,38 +1,295 @@
 package com.example.slimestore.scheduler;
 
+import com.example.slimestore.config.OutboxProperties;
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.OutboxMessage;
+import com.example.slimestore.jpa.OutboxPartition;
+import com.example.slimestore.model.order.OrderEvent;
 import com.example.slimestore.repository.OutboxMessageRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.slimestore.repository.OutboxPartitionRepository;
+import com.example.slimestore.service.OutboxRelayHealth;
+import com.example.slimestore.util.OrderEventCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.example.slimestore.config.SchedulingConfig.OUTBOX_RELAY_EXECUTOR;
+
+/**
+ * Relays outbox messages to Kafka in bounded batches, partition by partition in parallel.
+ * Each batch is claimed with row locks that other relay instances skip, so several
+ * instances can drain the outbox concurrently without publishing a message twice.
+ * Relayed rows are deleted with every batch, or, in the append-only storage mode, left
+ * in place behind a per-partition checkpoint for {@link OutboxLogTruncator}.
+ * Order events are keyed by order ID, so all events of one order land on the same
+ * partition and are consumed in the order they were written.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class OutboxRelayerScheduler {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private static final String ERROR_MESSAGE = "Cannot process outbox messages due to: ";
+    private static final LocalDateTime LOG_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
     private final OutboxMessageRepository outboxMessageRepository;
+    private final OutboxPartitionRepository outboxPartitionRepository;
+    private final AsyncTaskExecutor relayExecutor;
     private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties outboxProperties;
+    private final OutboxRelayHealth relayHealth;
+    private final Timer batchTimer;
+    private final Timer eventLatency;
+    private final Counter sentMessages;
+    private final Counter failedMessages;
+
+    private volatile int createdPartitions;
+
+    public OutboxRelayerScheduler(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                  OutboxMessageRepository outboxMessageRepository,
+                                  OutboxPartitionRepository outboxPartitionRepository,
+                                  @Qualifier(OUTBOX_RELAY_EXECUTOR) AsyncTaskExecutor relayExecutor,
+                                  TransactionTemplate transactionTemplate,
+                                  OutboxProperties outboxProperties,
+                                  OutboxRelayHealth relayHealth,
+                                  MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.outboxPartitionRepository = outboxPartitionRepository;
+        this.relayExecutor = relayExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxProperties = outboxProperties;
+        this.relayHealth = relayHealth;
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to claim, relay and delete one batch of outbox messages, including the commit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.eventLatency = Timer.builder("outbox.event.latency")
+                .description("Time from writing an outbox message to its acknowledgement by the broker")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sentMessages = Counter.builder("outbox.relay.messages")
+                .description("Outbox messages handed to Kafka")
+                .tag("result", "sent")
+                .register(meterRegistry);
+        this.failedMessages = Counter.builder("outbox.relay.messages")
+                .description("Outbox messages handed to Kafka")
+                .tag("result", "failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Drains the outbox with one worker per hash partition, each batch by batch until a
+     * batch comes back partially filled or a message cannot be sent. A worker leases its
+     * partition for every batch, so the events of one order are relayed by one worker at
+     * a time and in order, while partitions are relayed in parallel. Partitions leased by
+     * another instance are skipped. Runs are triggered by {@link OutboxRelayTrigger}.
+     *
+     * @return The number of messages relayed by this run.
+     */
+    public int processOutboxMessages() {
+        int partitionCount = outboxProperties.getRelay().getWorkers();
+        createPartitions(partitionCount);
+        List<CompletableFuture<Integer>> workers = new ArrayList<>(partitionCount);
+        for (int partition = 0; partition < partitionCount; partition++) {
+            int workerPartition = partition;
+            workers.add(relayExecutor.submitCompletable(() -> relayPartition(partitionCount, workerPartition)));
+        }
+        // waits for every worker before reporting the first failure, so no run outlives its trigger
+        CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+        return workers.stream().mapToInt(CompletableFuture::join).sum();
+    }
+
+    private int relayPartition(int partitionCount, int partition) {
+        int batchSize = outboxProperties.getBatchSize();
+        int total = 0;
+        Integer relayed;
+        try {
+            do {
+                relayed = batchTimer.record(() -> transactionTemplate.execute(
+                        status -> relayBatch(partitionCount, partition, batchSize)));
+                total += relayed != null ? relayed : 0;
+            } while (relayed != null && relayed == batchSize);
+        } catch (PessimisticLockingFailureException e) {
+            log.debug("Outbox partition {} is leased elsewhere: {}", partition, e.getMessage());
+        }
+        return total;
+    }
+
+    private Integer relayBatch(int partitionCount, int partition, int batchSize) {
+        Optional<OutboxPartition> lease = outboxPartitionRepository.leasePartition(partition);
+        if (lease.isEmpty()) {
+            return null;
+        }
+        OutboxProperties.StorageMode storageMode = outboxProperties.getStorageMode();
+        List<OutboxMessage> batch = switch (storageMode) {
+            case DELETE_ON_PUBLISH -> outboxMessageRepository.claimBatch(partitionCount, partition, Limit.of(batchSize));
+            case APPEND_ONLY -> findBatchAfterCheckpoint(lease.get(), partitionCount, batchSize);
+        };
+        List<OutboxMessage> relayed = switch (outboxProperties.getPublishMode()) {
+            case PER_MESSAGE -> relayPerMessage(batch);
+            case PIPELINED -> relayPipelined(batch);
+        };
+        relayHealth.recordBatch(batch.size(), relayed.size());
+        if (!relayed.isEmpty()) {
+            switch (storageMode) {
+                case DELETE_ON_PUBLISH -> outboxMessageRepository.deleteAllByIdInBatch(
+                        relayed.stream().map(OutboxMessage::getId).toList());
+                case APPEND_ONLY -> advanceCheckpoint(lease.get(), batch, relayed);
+            }
+        }
+        return relayed.size();
+    }
+
+    private List<OutboxMessage> findBatchAfterCheckpoint(OutboxPartition partition, int partitionCount, int batchSize) {
+        LocalDateTime afterCreatedAt = partition.getCheckpointCreatedAt() != null
+                ? partition.getCheckpointCreatedAt() : LOG_START;
+        long afterId = partition.getCheckpointId() != null ? partition.getCheckpointId() : 0;
+        LocalDateTime visibleUntil = LocalDateTime.now().minus(outboxProperties.getAppendOnly().getVisibilityDelay());
+        return outboxMessageRepository.findBatchAfter(partitionCount, partition.getId(), afterCreatedAt, afterId,
+                visibleUntil, Limit.of(batchSize));
+    }
 
-    @Scheduled(fixedRate = 5000)
-    public void processOutboxMessages() {
-        outboxMessageRepository.findAll()
-                .stream()
-                .<TransactionCallback<Boolean>>map(message -> status -> {
-                    try {
-                        kafkaTemplate.send(message.getTopic(), message.getPayload());
-                        outboxMessageRepository.delete(message);
-                        return true;
-                    } catch (Exception e) {
-                        status.setRollbackOnly();
-                        var errorMessage = "Cannot process outbox messages due to: ";
-                        log.error("{}{}", errorMessage, e.getMessage());
-                        return false;
-                    }
-                }).forEach(transactionTemplate::execute);
-    }
-}
\ No newline at end of file
+    private void advanceCheckpoint(OutboxPartition partition, List<OutboxMessage> batch, List<OutboxMessage> relayed) {
+        // the checkpoint moves over the relayed prefix only; messages acknowledged after a gap are sent again
+        Set<Long> relayedIds = relayed.stream().map(OutboxMessage::getId).collect(Collectors.toSet());
+        OutboxMessage last = null;
+        for (OutboxMessage message : batch) {
+            if (!relayedIds.contains(message.getId())) {
+                break;
+            }
+            last = message;
+        }
+        if (last != null) {
+            partition.setCheckpointCreatedAt(last.getCreatedAt());
+            partition.setCheckpointId(last.getId());
+        }
+    }
+
+    private void createPartitions(int partitionCount) {
+        if (createdPartitions >= partitionCount) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<Integer> existing = outboxPartitionRepository.findAll().stream()
+                        .map(OutboxPartition::getId)
+                        .collect(Collectors.toSet());
+                outboxPartitionRepository.saveAll(IntStream.range(0, partitionCount)
+                        .filter(partition -> !existing.contains(partition))
+                        .mapToObj(partition -> new OutboxPartition(partition, null, null))
+                        .toList());
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Outbox partitions created concurrently by another instance");
+        }
+        createdPartitions = partitionCount;
+    }
+
+    private List<OutboxMessage> relayPerMessage(List<OutboxMessage> batch) {
+        List<OutboxMessage> relayed = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            try {
+                recordLatencyOnAck(kafkaTemplate.send(toProducerRecord(message)), message);
+            } catch (Exception e) {
+                // keep the failed message and everything after it for the next run, in order
+                log.error("{}{}", ERROR_MESSAGE, e.getMessage());
+                failedMessages.increment();
+                break;
+            }
+            sentMessages.increment();
+            relayed.add(message);
+        }
+        return relayed;
+    }
+
+    private List<OutboxMessage> relayPipelined(List<OutboxMessage> batch) {
+        List<CompletableFuture<?>> acks = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            try {
+                acks.add(recordLatencyOnAck(kafkaTemplate.send(toProducerRecord(message)), message));
+            } catch (Exception e) {
+                log.error("{}{}", ERROR_MESSAGE, e.getMessage());
+                failedMessages.increment();
+                break;
+            }
+        }
+
+        long deadline = System.nanoTime() + outboxProperties.getSendTimeout().toNanos();
+        List<OutboxMessage> acknowledged = new ArrayList<>(acks.size());
+        for (int i = 0; i < acks.size(); i++) {
+            try {
+                acks.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acknowledged.add(batch.get(i));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                // only the acknowledged prefix counts as relayed: the failed message and everything
+                // after it stay in the outbox and are retried in order, so no event of an order
+                // can overtake an earlier one that still has to be sent again
+                log.error("{}{}", ERROR_MESSAGE, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                failedMessages.increment();
+                break;
+            }
+        }
+        sentMessages.increment(acknowledged.size());
+        return acknowledged;
+    }
+
+    private ProducerRecord<String, byte[]> toProducerRecord(OutboxMessage message) {
+        if (message.getAggregateId() == null) {
+            // written before events were keyed, relay it as it was stored
+            return new ProducerRecord<>(message.getTopic(), message.getPayload().getBytes(StandardCharsets.UTF_8));
+        }
+        String key = message.getAggregateId().toString();
+        return switch (outboxProperties.getEventFormat()) {
+            case STRING -> new ProducerRecord<>(message.getTopic(), key,
+                    message.getPayload().getBytes(StandardCharsets.UTF_8));
+            case BINARY -> {
+                ProducerRecord<String, byte[]> record = new ProducerRecord<>(message.getTopic(), key,
+                        OrderEventCodec.encode(toOrderEvent(message)));
+                record.headers().add(OrderEventCodec.SCHEMA_VERSION_HEADER, new byte[]{ OrderEventCodec.SCHEMA_VERSION });
+                yield record;
+            }
+        };
+    }
+
+    private static OrderEvent toOrderEvent(OutboxMessage message) {
+        return new OrderEvent(
+                Order.OrderStatus.valueOf(message.getEventType()),
+                message.getAggregateId(),
+                message.getCustomerName(),
+                message.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private <T> CompletableFuture<T> recordLatencyOnAck(CompletableFuture<T> ack, OutboxMessage message) {
+        ack.thenRun(() -> eventLatency.record(Duration.between(message.getCreatedAt(), LocalDateTime.now())));
+        return ack;
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.IdempotencyProperties;
+import com.example.slimestore.jpa.IdempotencyKey;
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.mapper.order.OrderMapper;
+import com.example.slimestore.model.order.IdempotentOrderResult;
+import com.example.slimestore.model.order.IdempotentOrderResult.Outcome;
+import com.example.slimestore.model.order.OrderDto;
+import com.example.slimestore.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Creates orders at most once per client supplied idempotency key.
+ * The key is inserted in the same transaction as the order, together with the response,
+ * so a retry is answered from the key row without touching the order tables. Recent
+ * responses are also kept in a bounded in-memory cache, which answers most retries
+ * without any database access. Concurrent requests with the same key in this instance
+ * wait for the first one instead of running again; across instances, the primary key of
+ * the key table lets only one of them commit, and the others replay its response.
+ */
+@Slf4j
+@Service
+public class IdempotentOrderService {
+
+    private final OrderService orderService;
+    private final OrderMapper orderMapper;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+    private final Cache<String, StoredResponse> responsesByKey;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotentOrderService(OrderService orderService, OrderMapper orderMapper,
+                                  IdempotencyKeyRepository idempotencyKeyRepository,
+                                  TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                                  IdempotencyProperties properties) {
+        this.orderService = orderService;
+        this.orderMapper = orderMapper;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.responsesByKey = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaxSize())
+                .expireAfterWrite(properties.getCacheExpireAfterWrite())
+                .build();
+    }
+
+    /**
+     * Creates an order for the given key, or replays the response of the order already
+     * created for it.
+     *
+     * @param key The idempotency key sent by the client.
+     * @param orderDto The order to create.
+     * @return The created or replayed order, or why neither was possible.
+     */
+    public IdempotentOrderResult createOrder(String key, OrderDto orderDto) {
+        String requestHash = hash(orderDto);
+        StoredResponse cached = responsesByKey.getIfPresent(key);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, execution);
+        if (running != null) {
+            return awaitRunning(running, requestHash);
+        }
+        try {
+            StoredResponse stored = execute(key, requestHash, orderDto);
+            execution.complete(stored);
+            return stored.created() ? new IdempotentOrderResult(Outcome.CREATED, stored.order())
+                    : replay(stored, requestHash);
+        } catch (RuntimeException e) {
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, execution);
+        }
+    }
+
+    /**
+     * Looks up the response of an order already created for the given key, without
+     * creating anything. Keys not in the in-memory cache are read from the key table in a
+     * read-write transaction, so from the primary even when read-only transactions go to
+     * a replica.
+     *
+     * @param key The idempotency key sent by the client.
+     * @param orderDto The order of the request.
+     * @return The replayed order, or that the key was used for a different order; empty if
+     * no order was created for the key yet.
+     */
+    public Optional<IdempotentOrderResult> findCompleted(String key, OrderDto orderDto) {
+        StoredResponse stored = responsesByKey.getIfPresent(key);
+        if (stored == null) {
+            stored = transactionTemplate.execute(status -> idempotencyKeyRepository.findById(key)
+                    .map(this::toStoredResponse)
+                    .orElse(null));
+            if (stored == null) {
+                return Optional.empty();
+            }
+            responsesByKey.put(key, stored);
+        }
+        return Optional.of(replay(stored, hash(orderDto)));
+    }
+
+    /**
+     * Deletes the keys that are older than the retention.
+     *
+     * @return The number of deleted keys.
+     */
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.purge-interval:1h}")
+    public int purge() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getRetention());
+        Integer deleted = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteCreatedBefore(before));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} idempotency keys created before {}", deleted, before);
+        }
+        return deleted != null ? deleted : 0;
+    }
+
+    private StoredResponse execute(String key, String requestHash, OrderDto orderDto) {
+        StoredResponse stored;
+        try {
+            // the key is inserted and flushed before the order is created, so another request
+            // with the same key blocks on the primary key instead of creating the order too
+            stored = transactionTemplate.execute(status -> insert(key, requestHash, orderDto));
+        } catch (DataIntegrityViolationException e) {
+            // the key exists already; read in a read-write transaction, so the key committed by
+            // another instance is read from the primary even when read-only transactions go to a replica
+            stored = transactionTemplate.execute(status -> idempotencyKeyRepository.findById(key)
+                    .map(this::toStoredResponse)
+                    .orElseThrow(() -> e));
+        }
+        responsesByKey.put(key, stored);
+        return stored;
+    }
+
+    private StoredResponse insert(String key, String requestHash, OrderDto orderDto) {
+        IdempotencyKey idempotencyKey = idempotencyKeyRepository.saveAndFlush(
+                new IdempotencyKey(key, requestHash, null, null, LocalDateTime.now()));
+        Order order = orderService.createOrder(orderMapper.toEntity(orderDto));
+        OrderDto response = orderMapper.toDto(order);
+        idempotencyKey.setOrderId(order.getId());
+        idempotencyKey.setResponse(toJson(response));
+        return new StoredResponse(requestHash, response, true);
+    }
+
+    private IdempotentOrderResult awaitRunning(CompletableFuture<StoredResponse> running, String requestHash) {
+        StoredResponse stored;
+        try {
+            stored = running.get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return new IdempotentOrderResult(Outcome.IN_PROGRESS, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new IdempotentOrderResult(Outcome.IN_PROGRESS, null);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return replay(stored, requestHash);
+    }
+
+    private IdempotentOrderResult replay(StoredResponse stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            return new IdempotentOrderResult(Outcome.KEY_REUSED, null);
+        }
+        return new IdempotentOrderResult(Outcome.REPLAYED, stored.order());
+    }
+
+    private StoredResponse toStoredResponse(IdempotencyKey idempotencyKey) {
+        try {
+            return new StoredResponse(idempotencyKey.getRequestHash(),
+                    objectMapper.readValue(idempotencyKey.getResponse(), OrderDto.class), false);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String toJson(OrderDto orderDto) {
+        try {
+            return objectMapper.writeValueAsString(orderDto);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String hash(OrderDto orderDto) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(orderDto));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A response stored for a key, and whether it was created by the current request.
+     */
+    private record StoredResponse(String requestHash, OrderDto order, boolean created) {
+    }
+}
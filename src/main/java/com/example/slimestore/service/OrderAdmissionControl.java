@@ -0,0 +1,114 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.OrderAdmissionProperties;
+import com.example.slimestore.model.order.OrderAdmission;
+import com.example.slimestore.model.outbox.OutboxBacklog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Admission control in front of order creation, driven by how far the outbox relay is behind.
+ * Below the delay thresholds of the backlog size and the age of its oldest message, orders
+ * are admitted right away. Between the delay and the shed thresholds they are held back for
+ * a delay growing with the backlog, which slows down writers without failing them; past a
+ * shed threshold they are rejected, so the relay can catch up instead of the outbox growing
+ * without bound. While the relay of this instance keeps failing, orders are delayed as long
+ * as allowed. The backlog comes from {@link OutboxBacklogMonitor}, so admission counts the
+ * outbox at most once per refresh interval rather than on every request.
+ */
+@Component
+public class OrderAdmissionControl {
+
+    private final OutboxBacklogMonitor outboxBacklogMonitor;
+    private final OutboxRelayHealth outboxRelayHealth;
+    private final OrderAdmissionProperties properties;
+    private final Counter admittedOrders;
+    private final Counter delayedOrders;
+    private final Counter rejectedOrders;
+
+    public OrderAdmissionControl(OutboxBacklogMonitor outboxBacklogMonitor, OutboxRelayHealth outboxRelayHealth,
+                                 OrderAdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.outboxBacklogMonitor = outboxBacklogMonitor;
+        this.outboxRelayHealth = outboxRelayHealth;
+        this.properties = properties;
+        this.admittedOrders = admissionCounter("admitted", meterRegistry);
+        this.delayedOrders = admissionCounter("delayed", meterRegistry);
+        this.rejectedOrders = admissionCounter("rejected", meterRegistry);
+    }
+
+    /**
+     * Decides whether an order write may proceed, and holds the caller back first if the
+     * write is admitted with a delay.
+     *
+     * @return Whether the write is admitted, with the delay it was held back for or the time
+     * the client should wait before retrying.
+     */
+    public OrderAdmission admit() {
+        OrderAdmission admission = decide();
+        if (!admission.isAdmitted()) {
+            rejectedOrders.increment();
+        } else if (admission.getDelay().isPositive()) {
+            delayedOrders.increment();
+            try {
+                Thread.sleep(admission.getDelay());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else {
+            admittedOrders.increment();
+        }
+        return admission;
+    }
+
+    /**
+     * Decides whether an order write may proceed, without holding the caller back.
+     *
+     * @return Whether the write is admitted, with the delay it should be held back for or
+     * the time the client should wait before retrying.
+     */
+    public OrderAdmission decide() {
+        if (!properties.isEnabled()) {
+            return OrderAdmission.admitted();
+        }
+        OutboxBacklog backlog = outboxBacklogMonitor.currentBacklog();
+        long ageMillis = backlog.oldestAge(LocalDateTime.now()).toMillis();
+        if (backlog.getSize() >= properties.getShedBacklog() || ageMillis >= properties.getShedAge().toMillis()) {
+            return OrderAdmission.rejected(properties.getRetryAfter());
+        }
+        double pressure = Math.max(
+                pressure(backlog.getSize(), properties.getDelayBacklog(), properties.getShedBacklog()),
+                pressure(ageMillis, properties.getDelayAge().toMillis(), properties.getShedAge().toMillis()));
+        if (outboxRelayHealth.getConsecutiveFailedBatches() >= properties.getRelayFailureThreshold()) {
+            pressure = 1.0;
+        }
+        if (pressure <= 0) {
+            return OrderAdmission.admitted();
+        }
+        return OrderAdmission.delayed(Duration.ofMillis(Math.round(properties.getMaxDelay().toMillis() * pressure)));
+    }
+
+    /**
+     * @return How far a value is between its delay and shed thresholds, from 0 at or below the
+     * delay threshold to 1 at the shed threshold.
+     */
+    private static double pressure(long value, long delayThreshold, long shedThreshold) {
+        if (value <= delayThreshold) {
+            return 0;
+        }
+        if (shedThreshold <= delayThreshold) {
+            return 1;
+        }
+        return Math.min(1.0, (double) (value - delayThreshold) / (shedThreshold - delayThreshold));
+    }
+
+    private static Counter admissionCounter(String decision, MeterRegistry meterRegistry) {
+        return Counter.builder("orders.admission")
+                .description("Order writes passed through admission control")
+                .tag("decision", decision)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.OrderBatchProperties;
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.jpa.OutboxMessage;
+import com.example.slimestore.mapper.order.OrderMapper;
+import com.example.slimestore.model.order.OrderBatchItemResultDto;
+import com.example.slimestore.model.order.OrderDeleteCriteria;
+import com.example.slimestore.model.order.OrderDto;
+import com.example.slimestore.model.orderproduct.OrderProductDto;
+import com.example.slimestore.model.product.ProductSalesDto;
+import com.example.slimestore.repository.OrderRepository;
+import com.example.slimestore.repository.OutboxMessageRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.example.slimestore.service.OrderService.createOutboxMessage;
+
+/**
+ * Service for creating and deleting many orders at once.
+ * Orders are persisted in chunks, each chunk in one transaction with batched inserts
+ * for orders, order products and outbox messages. When a chunk fails, its orders are
+ * retried one by one, so a single bad order does not fail the others.
+ * Bulk deletes are chunked the same way, with set-based statements instead of loading
+ * and cascading every order, so row locks are held only briefly.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderBatchService {
+
+    private final OrderRepository orderRepository;
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final ProductResolver productResolver;
+    private final OrderCache orderCache;
+    private final OrderMapper orderMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final OrderBatchProperties orderBatchProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Creates the given orders and saves an outbox message for each created order.
+     * IDs present in the request are ignored.
+     *
+     * @param orderDtos The orders to create.
+     * @return One result per order, in request order.
+     */
+    public List<OrderBatchItemResultDto> createOrders(List<OrderDto> orderDtos) {
+        OrderBatchItemResultDto[] results = new OrderBatchItemResultDto[orderDtos.size()];
+        List<Integer> validIndexes = new ArrayList<>(orderDtos.size());
+        for (int i = 0; i < orderDtos.size(); i++) {
+            String error = validate(orderDtos.get(i));
+            if (error != null) {
+                results[i] = OrderBatchItemResultDto.failed(i, error);
+            } else {
+                validIndexes.add(i);
+            }
+        }
+
+        int chunkSize = orderBatchProperties.getChunkSize();
+        for (int from = 0; from < validIndexes.size(); from += chunkSize) {
+            List<Integer> chunk = validIndexes.subList(from, Math.min(from + chunkSize, validIndexes.size()));
+            try {
+                List<Long> orderIds = persistOrders(chunk, orderDtos);
+                for (int i = 0; i < chunk.size(); i++) {
+                    results[chunk.get(i)] = OrderBatchItemResultDto.created(chunk.get(i), orderIds.get(i));
+                }
+            } catch (RuntimeException chunkFailure) {
+                log.warn("Order batch chunk of {} orders failed, retrying one by one: {}",
+                        chunk.size(), chunkFailure.getMessage());
+                for (Integer index : chunk) {
+                    results[index] = persistSingleOrder(index, orderDtos);
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Deletes all orders matching the criteria and saves an outbox message for each
+     * deleted order. Every chunk of orders is deleted in its own transaction, with one
+     * statement for their order products, one for the orders and batched outbox inserts.
+     * Chunks committed before a failure stay deleted.
+     *
+     * @param criteria Selects the orders to delete.
+     * @return The number of deleted orders.
+     */
+    public int deleteOrders(OrderDeleteCriteria criteria) {
+        int chunkSize = orderBatchProperties.getDeleteChunkSize();
+        int deleted = 0;
+        if (criteria.getIds() != null) {
+            List<Long> ids = criteria.getIds().stream().distinct().sorted().toList();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                deleted += deleteChunk(() -> orderRepository.findOrderIdsByIdIn(chunk)).size();
+            }
+        } else if (criteria.getCustomerName() != null) {
+            long afterId = Long.MIN_VALUE;
+            List<Long> chunk;
+            do {
+                long position = afterId;
+                chunk = deleteChunk(() -> orderRepository.findOrderIdsByCustomerName(
+                        criteria.getCustomerName(), position, Limit.of(chunkSize)));
+                deleted += chunk.size();
+                afterId = chunk.isEmpty() ? afterId : chunk.getLast();
+            } while (chunk.size() == chunkSize);
+        } else {
+            List<Long> chunk;
+            do {
+                chunk = deleteChunk(() -> orderRepository.findOrderIdsByIdBetween(
+                        criteria.getFromId(), criteria.getToId(), Limit.of(chunkSize)));
+                deleted += chunk.size();
+            } while (chunk.size() == chunkSize);
+        }
+        log.info("Bulk deleted {} orders", deleted);
+        return deleted;
+    }
+
+    private List<Long> deleteChunk(Supplier<List<Long>> orderIds) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = orderIds.get();
+            if (ids.isEmpty()) {
+                return ids;
+            }
+            List<ProductSalesDto> sales = orderRepository.sumQuantitiesByProductForOrders(ids);
+            orderRepository.deleteOrderProductsByOrderIdIn(ids);
+            orderRepository.deleteAllByIdInBatch(ids);
+            List<OutboxMessage> outboxMessages = outboxMessageRepository.saveAll(ids.stream()
+                    .map(id -> createOutboxMessage(Order.OrderStatus.ORDER_DELETED, id, null))
+                    .toList());
+            entityManager.flush();
+            entityManager.clear();
+            orderCache.evictAll(ids);
+            eventPublisher.publishEvent(new OutboxMessagesSavedEvent(ids.size(),
+                    outboxMessages.getFirst().getCreatedAt()));
+            eventPublisher.publishEvent(ProductSalesChangedEvent.cancelled(sales));
+            return ids;
+        });
+    }
+
+    private OrderBatchItemResultDto persistSingleOrder(int index, List<OrderDto> orderDtos) {
+        try {
+            return OrderBatchItemResultDto.created(index, persistOrders(List.of(index), orderDtos).getFirst());
+        } catch (RuntimeException e) {
+            log.warn("Order {} of batch could not be persisted", index, e);
+            return OrderBatchItemResultDto.failed(index, failureReason(e));
+        }
+    }
+
+    /**
+     * Tells the client why an order could not be persisted. Database messages are not
+     * passed on, since they expose the schema; only the kind of failure is.
+     */
+    private static String failureReason(RuntimeException e) {
+        if (e instanceof IllegalArgumentException) {
+            return e.getMessage();
+        }
+        if (e instanceof DataIntegrityViolationException) {
+            return "Order violates a database constraint, e.g. a value is too long";
+        }
+        if (e instanceof TransientDataAccessException) {
+            return "Order could not be persisted for now, it may succeed when retried";
+        }
+        return "Order could not be persisted: " + e.getClass().getSimpleName();
+    }
+
+    private List<Long> persistOrders(List<Integer> indexes, List<OrderDto> orderDtos) {
+        return transactionTemplate.execute(status -> {
+            // entities are mapped afresh for every attempt, a rolled back attempt leaves ids behind
+            List<Order> orders = indexes.stream()
+                    .map(index -> toNewOrder(orderDtos.get(index)))
+                    .toList();
+            productResolver.resolveProducts(orders.stream()
+                    .flatMap(order -> order.getOrderProducts().stream())
+                    .toList());
+            orderRepository.saveAll(orders);
+            List<OutboxMessage> outboxMessages = outboxMessageRepository.saveAll(orders.stream()
+                    .map(order -> createOutboxMessage(Order.OrderStatus.ORDER_CREATED, order.getId(), order.getCustomerName()))
+                    .toList());
+            // flushed through the repository, so a failing insert is translated into a DataAccessException
+            orderRepository.flush();
+            entityManager.clear();
+            eventPublisher.publishEvent(new OutboxMessagesSavedEvent(orders.size(),
+                    outboxMessages.getFirst().getCreatedAt()));
+            eventPublisher.publishEvent(ProductSalesChangedEvent.ordered(orders.stream()
+                    .flatMap(order -> order.getOrderProducts().stream())
+                    .toList()));
+            return orders.stream().map(Order::getId).toList();
+        });
+    }
+
+    private Order toNewOrder(OrderDto orderDto) {
+        Order order = orderMapper.toEntity(orderDto);
+        order.setId(null);
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            orderProduct.setId(null);
+            orderProduct.setOrder(order);
+        }
+        return order;
+    }
+
+    private String validate(OrderDto orderDto) {
+        if (orderDto == null) {
+            return "Order is missing";
+        }
+        if (orderDto.getCustomerName() == null || orderDto.getCustomerName().isBlank()) {
+            return "Customer name is required";
+        }
+        if (orderDto.getOrderProducts() == null || orderDto.getOrderProducts().isEmpty()) {
+            return "Order must contain at least one product";
+        }
+        for (OrderProductDto orderProduct : orderDto.getOrderProducts()) {
+            if (orderProduct == null || orderProduct.getProduct() == null
+                    || (orderProduct.getProduct().getId() == null && orderProduct.getProduct().getName() == null)) {
+                return "Every order product must reference a product id or name";
+            }
+            if (orderProduct.getQuantity() <= 0) {
+                return "Quantity must be positive";
+            }
+        }
+        return null;
+    }
+}
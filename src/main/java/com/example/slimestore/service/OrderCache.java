@@ -0,0 +1,90 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.ReadReplicaProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invalidates entries of the read-through cache of rendered orders.
+ * Inside a transaction the eviction is deferred until the transaction commits.
+ * <p>
+ * With read replicas enabled, orders are read and cached from replicas, which may not
+ * have the change yet when it is evicted and so cache the old state again. The eviction
+ * is therefore repeated once a usable replica must have caught up: after the maximum
+ * lag plus the lag probe interval, since a replica is only probed that often. This bounds
+ * how long a stale order stays cached to about the time it stays stale on a replica.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderCache {
+
+    public static final String ORDERS_CACHE = "orders";
+
+    private final CacheManager cacheManager;
+    private final ObjectProvider<ReadReplicaProperties> readReplicaProperties;
+
+    /**
+     * Removes a cached order, if present.
+     *
+     * @param orderId The ID of the order to remove.
+     */
+    public void evict(Long orderId) {
+        evictAll(List.of(orderId));
+    }
+
+    /**
+     * Removes cached orders, if present.
+     *
+     * @param orderIds The IDs of the orders to remove.
+     */
+    public void evictAll(Collection<Long> orderIds) {
+        Cache cache = cacheManager.getCache(ORDERS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        List<Long> evictedIds = List.copyOf(orderIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(cache, evictedIds);
+            return;
+        }
+        // a reader could cache the old state again until the change is committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(cache, evictedIds);
+            }
+        });
+    }
+
+    private void evict(Cache cache, List<Long> orderIds) {
+        orderIds.forEach(cache::evict);
+        Duration replicaStaleness = replicaStaleness();
+        if (replicaStaleness.isPositive()) {
+            CompletableFuture.runAsync(() -> orderIds.forEach(cache::evict),
+                    CompletableFuture.delayedExecutor(replicaStaleness.toMillis(), TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * @return How long a replica serving reads may lack a committed change, or zero
+     * without read replicas.
+     */
+    private Duration replicaStaleness() {
+        ReadReplicaProperties replicas = readReplicaProperties.getIfAvailable();
+        if (replicas == null || !replicas.isEnabled()) {
+            return Duration.ZERO;
+        }
+        return replicas.getMaxLag().plus(replicas.getLagProbeInterval());
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.model.order.OrderEvent;
+import com.example.slimestore.model.order.OrderStatusDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory read model of the orders, materialized from the orders topic.
+ * It keeps only the IDs of the live orders with their customer, and the number of live
+ * orders per customer, so status, existence and count queries are answered without
+ * touching JPA. Applying an event twice has no further effect, so the model is rebuilt
+ * by replaying the topic from the beginning. Being fed by the outbox relay, it trails
+ * the database by the relay delay.
+ * <p>
+ * Only creations in schema version 2 carry their customer. Creations without one, from
+ * the string format or replayed from schema version 1, are kept under no customer, and
+ * while any of them is live the per-customer counts are incomplete.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.orders.read-model", name = "enabled")
+public class OrderReadModel {
+
+    private static final String UNKNOWN_CUSTOMER = "";
+
+    private final Map<Long, String> customerByOrderId = new ConcurrentHashMap<>();
+    private final Map<String, Long> orderCountByCustomer = new ConcurrentHashMap<>();
+
+    private volatile boolean caughtUp;
+
+    /**
+     * Applies an order event. Events are expected from a single consumer thread.
+     *
+     * @param event The event read from the orders topic.
+     */
+    public void apply(OrderEvent event) {
+        switch (event.getType()) {
+            case ORDER_CREATED -> {
+                String customer = event.getCustomerName() != null ? event.getCustomerName() : UNKNOWN_CUSTOMER;
+                if (customerByOrderId.putIfAbsent(event.getOrderId(), customer) == null) {
+                    orderCountByCustomer.merge(customer, 1L, Long::sum);
+                }
+            }
+            case ORDER_DELETED -> {
+                String customer = customerByOrderId.remove(event.getOrderId());
+                if (customer != null) {
+                    orderCountByCustomer.computeIfPresent(customer, (key, count) -> count > 1 ? count - 1 : null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Empties the model before the topic is replayed.
+     */
+    public void reset() {
+        caughtUp = false;
+        customerByOrderId.clear();
+        orderCountByCustomer.clear();
+    }
+
+    /**
+     * Marks the model as complete, once the replay has reached the end of the topic.
+     */
+    public void markCaughtUp() {
+        caughtUp = true;
+    }
+
+    /**
+     * @return Whether the replay has reached the end of the topic as it was when the replay started.
+     */
+    public boolean isCaughtUp() {
+        return caughtUp;
+    }
+
+    /**
+     * Finds a live order.
+     *
+     * @param orderId The ID of the order.
+     * @return The status of the order, or empty if the model does not know it as live.
+     */
+    public Optional<OrderStatusDto> findStatus(Long orderId) {
+        String customer = customerByOrderId.get(orderId);
+        if (customer == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new OrderStatusDto(orderId, customer.equals(UNKNOWN_CUSTOMER) ? null : customer,
+                Order.OrderStatus.ORDER_CREATED));
+    }
+
+    /**
+     * @return Whether every live order in the model is known with its customer, so that
+     * {@link #countOrders} is complete.
+     */
+    public boolean hasCompleteCustomerCounts() {
+        return !orderCountByCustomer.containsKey(UNKNOWN_CUSTOMER);
+    }
+
+    /**
+     * @param customerName The name of the customer.
+     * @return The number of live orders of the customer, too low unless
+     * {@link #hasCompleteCustomerCounts()}.
+     */
+    public long countOrders(String customerName) {
+        return orderCountByCustomer.getOrDefault(customerName, 0L);
+    }
+}
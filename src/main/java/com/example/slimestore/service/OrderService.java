@@ -1,17 +1,39 @@
 package com.example.slimestore.service;
 
+import com.example.slimestore.config.OrderSearchProperties;
 import com.example.slimestore.jpa.Order;
 import com.example.slimestore.jpa.OutboxMessage;
+import com.example.slimestore.model.order.OrderDto;
+import com.example.slimestore.model.order.OrderStatusDto;
+import com.example.slimestore.model.product.ProductSalesDto;
 import com.example.slimestore.repository.OrderRepository;
 import com.example.slimestore.repository.OutboxMessageRepository;
-import com.example.slimestore.repository.ProductRepository;
+import com.example.slimestore.util.OrderRowUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import static com.example.slimestore.service.OrderCache.ORDERS_CACHE;
 import static com.example.slimestore.util.OrderUtil.buildOrderStatusMessage;
 
 /**
@@ -23,34 +45,36 @@ import static com.example.slimestore.util.OrderUtil.buildOrderStatusMessage;
 @RequiredArgsConstructor
 public class OrderService {
 
-    private static final String ORDER_TOPIC = "orders";
+    public static final String ORDER_TOPIC = "orders";
+
+    private static final String CREATE_ORDER_TIMER = "orders.create.transaction";
 
     private final OrderRepository orderRepository;
     private final OutboxMessageRepository outboxMessageRepository;
-    private final ProductRepository productRepository;
+    private final ProductResolver productResolver;
+    private final OrderCache orderCache;
+    private final OrderSearchProperties orderSearchProperties;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<OrderReadModel> orderReadModel;
 
     /**
      * Creates a new order and saves a corresponding message to the outbox table.
      * This operation is atomic: if the order fails to save, the outbox message
-     * will also be rolled back.
+     * will also be rolled back. The duration of the transaction is recorded by the
+     * {@value #CREATE_ORDER_TIMER} timer.
      *
      * @param order The order entity to be saved.
      * @return The saved order entity.
      */
     @Transactional
     public Order createOrder(Order order) {
-        order.getOrderProducts()
-                .forEach(orderProduct -> orderProduct
-                        .setProduct(productRepository.save(orderProduct.getProduct())));
+        timeTransaction(CREATE_ORDER_TIMER);
+        productResolver.resolveProducts(order.getOrderProducts());
         order.getOrderProducts().forEach(orderProduct -> orderProduct.setOrder(order));
         Order savedOrder = orderRepository.save(order);
-
-        OutboxMessage outboxMessage = new OutboxMessage();
-        outboxMessage.setTopic(ORDER_TOPIC);
-        outboxMessage.setPayload(buildOrderStatusMessage(Order.OrderStatus.ORDER_CREATED, savedOrder.getId()));
-        outboxMessage.setCreatedAt(LocalDateTime.now());
-        outboxMessageRepository.save(outboxMessage);
-
+        saveOutboxMessage(Order.OrderStatus.ORDER_CREATED, savedOrder.getId(), savedOrder.getCustomerName());
+        eventPublisher.publishEvent(ProductSalesChangedEvent.ordered(savedOrder.getOrderProducts()));
         return savedOrder;
     }
 
@@ -63,32 +87,174 @@ public class OrderService {
      */
     @Transactional
     public void deleteOrder(Long id) {
+        List<ProductSalesDto> sales = orderRepository.sumQuantitiesByProductForOrders(List.of(id));
         orderRepository.deleteById(id);
-
-        OutboxMessage outboxMessage = new OutboxMessage();
-        outboxMessage.setTopic(ORDER_TOPIC);
-        outboxMessage.setPayload(buildOrderStatusMessage(Order.OrderStatus.ORDER_DELETED, id));
-        outboxMessage.setCreatedAt(LocalDateTime.now());
-        outboxMessageRepository.save(outboxMessage);
+        eventPublisher.publishEvent(ProductSalesChangedEvent.cancelled(sales));
+        saveOutboxMessage(Order.OrderStatus.ORDER_DELETED, id, null);
     }
 
     /**
-     * Retrieves an order by its unique ID.
+     * Retrieves an order by its unique ID, rendered with its order products and products.
+     * The order is read as flat rows projected by one query and assembled straight into
+     * the response, without entities. Found orders are served from a bounded read-through
+     * cache, which is invalidated whenever an order status message is written to the
+     * outbox or consumed from the orders topic. The read runs in a read-only transaction,
+     * so it is served by a read replica when they are enabled; an order a lagging replica
+     * returned in its old state stays cached until {@link OrderCache} repeats the eviction
+     * once replicas must have caught up.
      *
      * @param id The ID of the order to find.
      * @return An Optional containing the found order, or empty if not found.
      */
-    public Optional<Order> getOrderById(Long id) {
-        return orderRepository.findById(id);
+    @Cacheable(cacheNames = ORDERS_CACHE, key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<OrderDto> getOrderById(Long id) {
+        return OrderRowUtil.toOrderDtos(orderRepository.findOrderRowsByIdIn(List.of(id))).stream().findFirst();
+    }
+
+    /**
+     * Retrieves the status of an order. Orders known to the in-memory read model are
+     * answered from it without touching the database; orders it does not know, because it
+     * is disabled, still replaying or not yet fed by the relay, are looked up in the database.
+     *
+     * @param id The ID of the order.
+     * @return An Optional containing the status of the order, or empty if not found.
+     */
+    public Optional<OrderStatusDto> getOrderStatus(Long id) {
+        OrderReadModel readModel = orderReadModel.getIfAvailable();
+        Optional<OrderStatusDto> status = readModel != null ? readModel.findStatus(id) : Optional.empty();
+        if (status.isPresent()) {
+            return status;
+        }
+        return orderRepository.findById(id)
+                .map(order -> new OrderStatusDto(order.getId(), order.getCustomerName(), Order.OrderStatus.ORDER_CREATED));
+    }
+
+    /**
+     * Counts the orders of a customer, from the in-memory read model once it has caught up
+     * with the orders topic and knows the customer of every live order, and from the
+     * database otherwise, e.g. while events are published in the string format, which does
+     * not carry the customer. Counts from the read model trail the database by the relay delay.
+     *
+     * @param customerName The name of the customer.
+     * @return The number of orders of the customer.
+     */
+    public long countOrdersByCustomer(String customerName) {
+        OrderReadModel readModel = orderReadModel.getIfAvailable();
+        if (readModel != null && readModel.isCaughtUp() && readModel.hasCompleteCustomerCounts()) {
+            return readModel.countOrders(customerName);
+        }
+        return orderRepository.countByCustomerName(customerName);
+    }
+
+    /**
+     * Finds a page of orders that contain a product with the given name, each order once
+     * and complete, read through the same projection as {@link #getOrderById}. Pages are
+     * addressed by keyset: the next page starts after the highest order ID of the previous one.
+     *
+     * @param productName The name of the product to search for.
+     * @param afterId The order ID the page starts after, or null for the first page.
+     * @param pageSize The maximum number of orders in the page.
+     * @return The orders of the page in ascending ID order, and whether more follow.
+     */
+    @Transactional(readOnly = true)
+    public Window<OrderDto> findByProductName(String productName, Long afterId, int pageSize) {
+        return loadPage(orderRepository.findOrderIdsByProductName(
+                productName, afterId == null ? Long.MIN_VALUE : afterId, Limit.of(pageSize + 1)), pageSize);
+    }
+
+    /**
+     * Finds a page of orders that contain any of the given products, each order once and
+     * complete, addressed by keyset like {@link #findByProductName}.
+     *
+     * @param productIds The IDs of the products to search for.
+     * @param afterId The order ID the page starts after, or null for the first page.
+     * @param pageSize The maximum number of orders in the page.
+     * @return The orders of the page in ascending ID order, and whether more follow.
+     */
+    @Transactional(readOnly = true)
+    public Window<OrderDto> findByProductIds(Collection<Long> productIds, Long afterId, int pageSize) {
+        if (productIds.isEmpty()) {
+            return loadPage(List.of(), pageSize);
+        }
+        return loadPage(orderRepository.findOrderIdsByProductIds(
+                productIds, afterId == null ? Long.MIN_VALUE : afterId, Limit.of(pageSize + 1)), pageSize);
+    }
+
+    private Window<OrderDto> loadPage(List<Long> orderIds, int pageSize) {
+        boolean hasNext = orderIds.size() > pageSize;
+        List<OrderDto> orders = orderIds.isEmpty()
+                ? List.of()
+                : OrderRowUtil.toOrderDtos(orderRepository.findOrderRowsByIdIn(
+                        hasNext ? orderIds.subList(0, pageSize) : orderIds));
+        return Window.from(orders, index -> ScrollPosition.forward(Map.of("id", orders.get(index).getId())), hasNext);
     }
 
     /**
-     * Finds orders that contain a product with the given name.
+     * Streams all orders that contain a product with the given name to a consumer, in
+     * ascending ID order. Order IDs are read from a database cursor and the orders are
+     * projected and handed over in chunks, so memory use does not grow with the number
+     * of results.
      *
      * @param productName The name of the product to search for.
-     * @return A list of orders matching the search criteria.
+     * @param consumer Receives each complete order while the transaction is open.
+     */
+    @Transactional(readOnly = true)
+    public void streamByProductName(String productName, Consumer<OrderDto> consumer) {
+        int chunkSize = orderSearchProperties.getStreamChunkSize();
+        List<Long> chunk = new ArrayList<>(chunkSize);
+        try (Stream<Long> orderIds = orderRepository.streamOrderIdsByProductName(productName)) {
+            Iterator<Long> iterator = orderIds.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    OrderRowUtil.toOrderDtos(orderRepository.findOrderRowsByIdIn(chunk)).forEach(consumer);
+                    chunk.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Times the current transaction from now until it has committed or rolled back.
+     */
+    private void timeTransaction(String timerName) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                sample.stop(Timer.builder(timerName)
+                        .description("Duration of the transaction, including its commit or rollback")
+                        .tag("outcome", status == STATUS_COMMITTED ? "committed" : "rolled_back")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+            }
+        });
+    }
+
+    private void saveOutboxMessage(Order.OrderStatus orderStatus, Long orderId, String customerName) {
+        OutboxMessage outboxMessage = outboxMessageRepository.save(
+                createOutboxMessage(orderStatus, orderId, customerName));
+        orderCache.evict(orderId);
+        eventPublisher.publishEvent(new OutboxMessagesSavedEvent(1, outboxMessage.getCreatedAt()));
+    }
+
+    /**
+     * Builds the outbox message announcing a status change of an order.
+     *
+     * @param orderStatus The new status of the order.
+     * @param orderId The ID of the order.
+     * @param customerName The customer who placed the order, or null if the event does not carry it.
+     * @return The outbox message, not yet saved.
      */
-    public List<Order> findByProductName(String productName) {
-        return orderRepository.findByOrderProducts_Product_Name(productName);
+    static OutboxMessage createOutboxMessage(Order.OrderStatus orderStatus, Long orderId, String customerName) {
+        OutboxMessage outboxMessage = new OutboxMessage();
+        outboxMessage.setTopic(ORDER_TOPIC);
+        outboxMessage.setPayload(buildOrderStatusMessage(orderStatus, orderId));
+        outboxMessage.setCreatedAt(LocalDateTime.now());
+        outboxMessage.setAggregateId(orderId);
+        outboxMessage.setEventType(orderStatus.name());
+        outboxMessage.setCustomerName(customerName);
+        return outboxMessage;
     }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.OutboxProperties;
+import com.example.slimestore.model.outbox.OutboxBacklog;
+import com.example.slimestore.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps track of how far the outbox relay is behind.
+ * In the append-only storage mode only the messages past their partition checkpoint count.
+ * The backlog is measured at most once per refresh interval, however often it is asked
+ * for, so it can be scraped and consulted freely without loading the database. The
+ * measurement runs on the thread of the caller that finds the backlog stale, so one
+ * request per refresh interval pays for the count; while it runs, the other callers keep
+ * getting the previous measurement instead of waiting for it. Only the very first
+ * measurement makes every caller wait.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxBacklogMonitor implements MeterBinder {
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final OutboxProperties outboxProperties;
+
+    private final ReentrantLock measureLock = new ReentrantLock();
+
+    private volatile OutboxBacklog backlog;
+    private volatile long measuredAtNanos;
+
+    /**
+     * @return The most recently measured backlog, measured now if it is older than the refresh interval
+     * and no other caller is measuring it already.
+     */
+    public OutboxBacklog currentBacklog() {
+        OutboxBacklog current = backlog;
+        if (current != null && (!isStale() || !measureLock.tryLock())) {
+            return current;
+        }
+        if (current == null) {
+            measureLock.lock();
+        }
+        try {
+            if (backlog == null || isStale()) {
+                backlog = switch (outboxProperties.getStorageMode()) {
+                    case DELETE_ON_PUBLISH -> outboxMessageRepository.measureBacklog();
+                    case APPEND_ONLY -> outboxMessageRepository.measureUnrelayedBacklog(
+                            outboxProperties.getRelay().getWorkers());
+                };
+                measuredAtNanos = System.nanoTime();
+            }
+            return backlog;
+        } finally {
+            measureLock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("outbox.backlog", this, monitor -> monitor.currentBacklog().getSize())
+                .description("Number of outbox messages not yet relayed to Kafka")
+                .baseUnit("messages")
+                .register(registry);
+        Gauge.builder("outbox.oldest.age", this,
+                        monitor -> monitor.currentBacklog().oldestAge(LocalDateTime.now()).toMillis() / 1000.0)
+                .description("How long the oldest outbox message has been waiting to be relayed")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    private boolean isStale() {
+        return System.nanoTime() - measuredAtNanos >= outboxProperties.getBacklogRefreshInterval().toNanos();
+    }
+}
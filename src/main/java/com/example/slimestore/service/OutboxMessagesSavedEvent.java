@@ -0,0 +1,20 @@
+package com.example.slimestore.service;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when messages are written to the outbox, delivered to transactional
+ * listeners once the writing transaction has committed and the messages can be relayed.
+ */
+@Value
+public class OutboxMessagesSavedEvent {
+
+    int messageCount;
+
+    /**
+     * When the earliest of the messages was stamped.
+     */
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,38 @@
+package com.example.slimestore.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks whether the outbox relay of this instance can hand messages to Kafka.
+ * Every batch that found messages but relayed none of them counts as failed; a batch
+ * that relayed anything clears the count again. Instances that do not relay the outbox
+ * never report failures, their view of the relay comes from the backlog alone.
+ */
+@Component
+public class OutboxRelayHealth {
+
+    private final AtomicInteger consecutiveFailedBatches = new AtomicInteger();
+
+    /**
+     * Records the outcome of one relayed batch.
+     *
+     * @param claimed The number of messages the batch tried to relay.
+     * @param relayed The number of messages acknowledged by Kafka.
+     */
+    public void recordBatch(int claimed, int relayed) {
+        if (relayed > 0) {
+            consecutiveFailedBatches.set(0);
+        } else if (claimed > 0) {
+            consecutiveFailedBatches.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return The number of batches in a row that relayed none of their messages.
+     */
+    public int getConsecutiveFailedBatches() {
+        return consecutiveFailedBatches.get();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.OutboxProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Bounds how late outbox messages may commit in the append-only storage mode.
+ * The relay moves its checkpoint over every message older than the visibility delay, so
+ * a message committed later than that behind a relayed one would never be relayed and
+ * would be truncated with the relayed ones. A transaction whose outbox messages were
+ * stamped longer than the write timeout ago is therefore rolled back before it commits.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.outbox", name = "storage-mode", havingValue = "append-only")
+public class OutboxWriteDeadline {
+
+    private final OutboxProperties outboxProperties;
+
+    /**
+     * Rolls the writing transaction back if its outbox messages would commit too late.
+     *
+     * @param event The saved outbox messages.
+     * @throws TransactionTimedOutException if the messages were stamped longer than the write timeout ago.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeCommit(OutboxMessagesSavedEvent event) {
+        Duration writeTimeout = outboxProperties.getAppendOnly().getWriteTimeout();
+        Duration elapsed = Duration.between(event.getCreatedAt(), LocalDateTime.now());
+        if (elapsed.compareTo(writeTimeout) > 0) {
+            throw new TransactionTimedOutException("Outbox messages stamped " + elapsed.toMillis()
+                    + " ms before commit, the append-only outbox allows " + writeTimeout.toMillis() + " ms");
+        }
+    }
+}
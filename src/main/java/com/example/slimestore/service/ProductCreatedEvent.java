@@ -0,0 +1,14 @@
+package com.example.slimestore.service;
+
+import lombok.Value;
+
+/**
+ * Published when a product is added to the catalog, delivered to transactional
+ * listeners once the inserting transaction has committed.
+ */
+@Value
+public class ProductCreatedEvent {
+
+    Long productId;
+    String productName;
+}
@@ -0,0 +1,261 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.ProductSearchProperties;
+import com.example.slimestore.jpa.Product;
+import com.example.slimestore.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over the product names of the catalog.
+ * Names are kept case-insensitively in a sorted map for prefix queries and in a trigram
+ * inverted index for typo-tolerant queries, so neither needs to scan the products table.
+ * The index is loaded when the application context starts and extended whenever a
+ * product creation of this instance commits. Products created, renamed or deleted
+ * elsewhere, e.g. by another instance, show up once the index is reloaded periodically.
+ * Creations committed while a reload reads the catalog are applied again on top of the
+ * reloaded content, so a reload never drops a product indexed in the meantime.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductNameIndex {
+
+    /**
+     * How a query is matched against product names.
+     */
+    public enum MatchMode {
+        /** The name equals the query, ignoring case. */
+        EXACT,
+        /** The name starts with the query, ignoring case. */
+        PREFIX,
+        /** The name starts with the query, ignoring case and tolerating a few typos. */
+        FUZZY
+    }
+
+    private static final int GRAM_LENGTH = 3;
+    private static final String GRAM_PADDING = "  ";
+
+    private final ProductRepository productRepository;
+    private final ProductSearchProperties properties;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock reloadLock = new ReentrantLock();
+    private final NavigableMap<String, Map<Long, String>> productsByKey = new TreeMap<>();
+    private final Map<String, Set<String>> keysByGram = new HashMap<>();
+    private Map<Long, String> createdDuringReload;
+
+    /**
+     * Replaces the content of the index with the current catalog.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    @Scheduled(initialDelayString = "${app.products.search.reload-interval:5m}",
+            fixedDelayString = "${app.products.search.reload-interval:5m}")
+    public void reload() {
+        reloadLock.lock();
+        try {
+            // creations committed from here on may be missing from the catalog read below
+            recordCreations(new HashMap<>());
+            List<Product> products;
+            try {
+                products = productRepository.findAll();
+            } catch (RuntimeException e) {
+                recordCreations(null);
+                throw e;
+            }
+            lock.writeLock().lock();
+            try {
+                productsByKey.clear();
+                keysByGram.clear();
+                products.forEach(product -> addUnderLock(product.getId(), product.getName()));
+                createdDuringReload.forEach(this::addUnderLock);
+                createdDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Indexed {} product names", products.size());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Adds a committed product to the index.
+     *
+     * @param event The created product.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductCreated(ProductCreatedEvent event) {
+        lock.writeLock().lock();
+        try {
+            addUnderLock(event.getProductId(), event.getProductName());
+            if (createdDuringReload != null) {
+                createdDuringReload.put(event.getProductId(), event.getProductName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the products whose name matches a query, best matches first: exact and prefix
+     * matches before fuzzy ones, then by fewer typos and by name.
+     *
+     * @param query The name or name prefix to search for.
+     * @param mode How the query is matched.
+     * @param limit The maximum number of products to return.
+     * @return Detached products carrying their ID and name.
+     */
+    public List<Product> search(String query, MatchMode mode, int limit) {
+        String key = normalize(query);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Match> matches = switch (mode) {
+                case EXACT -> exactMatches(key);
+                case PREFIX -> prefixMatches(key, limit);
+                case FUZZY -> fuzzyMatches(key, limit);
+            };
+            return matches.stream()
+                    .sorted(Comparator.comparingInt(Match::distance).thenComparing(Match::key))
+                    .flatMap(match -> productsByKey.get(match.key()).entrySet().stream())
+                    .limit(limit)
+                    .map(product -> new Product(product.getKey(), product.getValue(), null))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Match> exactMatches(String key) {
+        return productsByKey.containsKey(key) ? List.of(new Match(key, 0)) : List.of();
+    }
+
+    private List<Match> prefixMatches(String prefix, int limit) {
+        List<Match> matches = new ArrayList<>();
+        for (String key : productsByKey.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet()) {
+            if (matches.size() == limit) {
+                break;
+            }
+            matches.add(new Match(key, 0));
+        }
+        return matches;
+    }
+
+    private List<Match> fuzzyMatches(String query, int limit) {
+        int maxDistance = Math.min(properties.getMaxEditDistance(), query.length() / 4);
+        if (maxDistance == 0) {
+            return prefixMatches(query, limit);
+        }
+        // every typo destroys at most three grams, so a match shares all but that many with the query
+        Set<String> queryGrams = grams(query);
+        int minSharedGrams = queryGrams.size() - GRAM_LENGTH * maxDistance;
+        Map<String, Integer> sharedGrams = new HashMap<>();
+        for (String gram : queryGrams) {
+            for (String key : keysByGram.getOrDefault(gram, Set.of())) {
+                sharedGrams.merge(key, 1, Integer::sum);
+            }
+        }
+        List<Match> matches = new ArrayList<>();
+        sharedGrams.forEach((key, shared) -> {
+            if (shared >= minSharedGrams) {
+                int distance = prefixEditDistance(query, key, maxDistance);
+                if (distance <= maxDistance) {
+                    matches.add(new Match(key, distance));
+                }
+            }
+        });
+        return matches;
+    }
+
+    private void recordCreations(Map<Long, String> createdDuringReload) {
+        lock.writeLock().lock();
+        try {
+            this.createdDuringReload = createdDuringReload;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addUnderLock(Long productId, String productName) {
+        String key = normalize(productName);
+        if (key.isEmpty()) {
+            return;
+        }
+        productsByKey.computeIfAbsent(key, ignored -> new TreeMap<>()).put(productId, productName);
+        for (String gram : grams(key)) {
+            keysByGram.computeIfAbsent(gram, ignored -> new HashSet<>()).add(key);
+        }
+    }
+
+    /**
+     * Computes the smallest number of single character edits turning the query into some
+     * prefix of the name, giving up once it exceeds the given bound.
+     */
+    static int prefixEditDistance(String query, String name, int maxDistance) {
+        int[] previous = new int[name.length() + 1];
+        int[] current = new int[name.length() + 1];
+        for (int j = 0; j <= name.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= query.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= name.length(); j++) {
+                int substitution = previous[j - 1] + (query.charAt(i - 1) == name.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxDistance) {
+                return rowMin;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        int distance = Integer.MAX_VALUE;
+        for (int value : previous) {
+            distance = Math.min(distance, value);
+        }
+        return distance;
+    }
+
+    private static Set<String> grams(String key) {
+        String padded = GRAM_PADDING + key;
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private record Match(String key, int distance) {
+    }
+}
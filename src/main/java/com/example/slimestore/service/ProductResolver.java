@@ -0,0 +1,149 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.ProductCacheProperties;
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.jpa.Product;
+import com.example.slimestore.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Resolves the products referenced by order lines to catalog rows.
+ * Products are de-duplicated within an order, looked up by id or by name in one
+ * query each, and created only when the catalog does not know their name yet. Resolved name to id
+ * pairs are kept in a bounded cache, so recently seen products need no catalog
+ * read at all; products looked up by id are taken from the second-level cache first.
+ */
+@Component
+public class ProductResolver {
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache<String, Long> productIdsByName;
+
+    public ProductResolver(ProductRepository productRepository, EntityManager entityManager,
+                           ApplicationEventPublisher eventPublisher, ProductCacheProperties properties) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.productIdsByName = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterAccess(properties.getExpireAfterAccess())
+                .build();
+    }
+
+    /**
+     * Replaces the product of every order line with its catalog product.
+     * Lines that refer to the same product end up sharing one product instance.
+     *
+     * @param orderProducts The order lines to resolve.
+     */
+    public void resolveProducts(List<OrderProduct> orderProducts) {
+        Map<Long, Product> byId = new HashMap<>();
+        Map<String, Product> byName = new HashMap<>();
+        Set<String> unresolvedNames = new LinkedHashSet<>();
+        Set<String> cachedNames = new HashSet<>();
+
+        for (OrderProduct orderProduct : orderProducts) {
+            Product product = orderProduct.getProduct();
+            if (product.getId() != null) {
+                byId.put(product.getId(), null);
+                continue;
+            }
+            Objects.requireNonNull(product.getName(), "Order product must reference a product id or name");
+            Long cachedId = productIdsByName.getIfPresent(product.getName());
+            if (cachedId != null) {
+                // a detached reference is enough for the foreign key and still carries the name
+                byName.computeIfAbsent(product.getName(), name -> new Product(cachedId, name, null));
+                cachedNames.add(product.getName());
+            } else {
+                unresolvedNames.add(product.getName());
+            }
+        }
+
+        if (!cachedNames.isEmpty()) {
+            evictOnRollback(cachedNames);
+        }
+        if (!byId.isEmpty()) {
+            entityManager.unwrap(Session.class)
+                    .byMultipleIds(Product.class)
+                    // without an explicit cache mode a multi-load skips the second-level cache
+                    .with(CacheMode.NORMAL)
+                    .multiLoad(List.copyOf(byId.keySet()))
+                    .stream()
+                    .filter(Objects::nonNull)
+                    .forEach(existing -> byId.put(existing.getId(), existing));
+            byId.forEach((id, existing) -> {
+                if (existing == null) {
+                    throw new IllegalArgumentException("Unknown product id " + id);
+                }
+            });
+        }
+        if (!unresolvedNames.isEmpty()) {
+            for (Product existing : productRepository.findByNameInOrderByIdAsc(unresolvedNames)) {
+                if (byName.putIfAbsent(existing.getName(), existing) == null) {
+                    unresolvedNames.remove(existing.getName());
+                    cacheAfterCommit(existing);
+                }
+            }
+            for (String name : unresolvedNames) {
+                Product created = productRepository.save(new Product(null, name, null));
+                eventPublisher.publishEvent(new ProductCreatedEvent(created.getId(), created.getName()));
+                byName.put(name, created);
+                cacheAfterCommit(created);
+            }
+        }
+
+        for (OrderProduct orderProduct : orderProducts) {
+            Product product = orderProduct.getProduct();
+            orderProduct.setProduct(product.getId() != null
+                    ? byId.get(product.getId())
+                    : byName.get(product.getName()));
+        }
+    }
+
+    private void evictOnRollback(Set<String> names) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        // a cached id may point to a product removed since, so a failed order re-reads the catalog on retry
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    productIdsByName.invalidateAll(names);
+                }
+            }
+        });
+    }
+
+    private void cacheAfterCommit(Product product) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            productIdsByName.put(product.getName(), product.getId());
+            return;
+        }
+        // never cache the id of a product whose insert may still be rolled back
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productIdsByName.put(product.getName(), product.getId());
+            }
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.model.product.ProductSalesDto;
+import lombok.Value;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published when orders are created or deleted, delivered to transactional listeners
+ * once the writing transaction has committed. Each change carries the quantity a
+ * product gained, negative when orders were deleted.
+ */
+@Value
+public class ProductSalesChangedEvent {
+
+    List<ProductSalesDto> changes;
+
+    /**
+     * @param orderProducts The order products of created orders, with their products resolved.
+     */
+    static ProductSalesChangedEvent ordered(Collection<OrderProduct> orderProducts) {
+        return new ProductSalesChangedEvent(orderProducts.stream()
+                .map(line -> new ProductSalesDto(line.getProduct().getId(), line.getProduct().getName(), line.getQuantity()))
+                .toList());
+    }
+
+    /**
+     * @param sales The product quantities of deleted orders.
+     */
+    static ProductSalesChangedEvent cancelled(Collection<ProductSalesDto> sales) {
+        return new ProductSalesChangedEvent(sales.stream()
+                .map(sale -> new ProductSalesDto(sale.getProductId(), sale.getProductName(), -sale.getQuantity()))
+                .toList());
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.model.product.ProductSalesDto;
+import com.example.slimestore.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory counters of the quantity ordered per product.
+ * Counters are adjusted incrementally whenever an order creation or deletion of this
+ * instance commits. They are striped {@link LongAdder}s, so writers ordering the same hot
+ * product do not contend on a single memory location. Counters are kept per instance:
+ * orders committed by other instances are only picked up by a full aggregate over the
+ * order products, which the scheduler runs right after startup, without holding up the
+ * start, and then periodically. Each aggregate replaces all counters at once, also
+ * correcting adjustments that raced with the previous one. Top-selling queries read the
+ * counters only, so their cost grows with the number of products, not orders.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSalesCounters {
+
+    private static final Comparator<ProductSalesDto> BY_QUANTITY = Comparator
+            .comparingLong(ProductSalesDto::getQuantity)
+            .thenComparing(ProductSalesDto::getProductId, Comparator.reverseOrder());
+
+    private final OrderRepository orderRepository;
+
+    private volatile Map<Long, ProductCounter> countersByProductId = new ConcurrentHashMap<>();
+
+    /**
+     * Replaces the counters with a full aggregate over the order products. The new
+     * counters are built aside and swapped in as a whole, so an adjustment never mixes with
+     * half-reconciled counters; one committing while the aggregate runs may be lost or
+     * counted twice until the next reconciliation.
+     */
+    @Scheduled(fixedDelayString = "${app.products.sales.reconcile-interval:10m}")
+    public void reconcile() {
+        List<ProductSalesDto> sales = orderRepository.sumQuantitiesByProduct();
+        Map<Long, ProductCounter> reconciled = new ConcurrentHashMap<>(sales.size());
+        for (ProductSalesDto sale : sales) {
+            ProductCounter counter = new ProductCounter(sale.getProductName());
+            counter.quantity.add(sale.getQuantity());
+            reconciled.put(sale.getProductId(), counter);
+        }
+        countersByProductId = reconciled;
+        log.info("Reconciled sales counters of {} products", sales.size());
+    }
+
+    /**
+     * Adjusts the counters once orders have been committed.
+     *
+     * @param event The quantities gained or lost per product.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductSalesChanged(ProductSalesChangedEvent event) {
+        for (ProductSalesDto change : event.getChanges()) {
+            counter(change.getProductId(), change.getProductName()).quantity.add(change.getQuantity());
+        }
+    }
+
+    /**
+     * Finds the products ordered in the largest quantities.
+     *
+     * @param limit The maximum number of products to return.
+     * @return The products with a positive quantity, largest quantity first, ties by product ID.
+     */
+    public List<ProductSalesDto> topSelling(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<ProductSalesDto> top = new PriorityQueue<>(limit, BY_QUANTITY);
+        countersByProductId.forEach((productId, counter) -> {
+            long quantity = counter.quantity.sum();
+            if (quantity <= 0) {
+                return;
+            }
+            ProductSalesDto sales = new ProductSalesDto(productId, counter.productName, quantity);
+            if (top.size() < limit) {
+                top.add(sales);
+            } else if (BY_QUANTITY.compare(sales, top.peek()) > 0) {
+                top.poll();
+                top.add(sales);
+            }
+        });
+        List<ProductSalesDto> result = new ArrayList<>(top);
+        result.sort(BY_QUANTITY.reversed());
+        return result;
+    }
+
+    private ProductCounter counter(Long productId, String productName) {
+        return countersByProductId.computeIfAbsent(productId, id -> new ProductCounter(productName));
+    }
+
+    private static final class ProductCounter {
+
+        private final String productName;
+        private final LongAdder quantity = new LongAdder();
+
+        private ProductCounter(String productName) {
+            this.productName = productName;
+        }
+    }
+}
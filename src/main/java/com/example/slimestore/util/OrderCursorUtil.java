@@ -0,0 +1,25 @@
+package com.example.slimestore.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes keyset positions of order searches as opaque cursor tokens.
+ */
+public final class OrderCursorUtil {
+
+    public static String encodeCursor(Long orderId) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(orderId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encodeCursor(Long)}.
+     */
+    public static long decodeCursor(String cursor) {
+        String orderId = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        return Long.parseLong(orderId);
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.example.slimestore.util;
+
+import com.example.slimestore.model.order.OrderDto;
+import com.example.slimestore.model.order.OrderLineRow;
+import com.example.slimestore.model.orderproduct.OrderProductDto;
+import com.example.slimestore.model.product.ProductDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Assembles order responses from flat order rows, without going through entities.
+ */
+public final class OrderRowUtil {
+
+    private OrderRowUtil() {
+    }
+
+    /**
+     * Groups rows into orders in one pass. The rows of an order must be adjacent, as
+     * they are when the query orders them by order ID.
+     *
+     * @param rows The rows of the orders, in the order the orders are returned in.
+     * @return One order per distinct order ID, with its order products in row order.
+     */
+    public static List<OrderDto> toOrderDtos(List<OrderLineRow> rows) {
+        List<OrderDto> orders = new ArrayList<>();
+        OrderDto current = null;
+        for (OrderLineRow row : rows) {
+            if (current == null || !current.getId().equals(row.getOrderId())) {
+                current = new OrderDto();
+                current.setId(row.getOrderId());
+                current.setCustomerName(row.getCustomerName());
+                current.setOrderProducts(new ArrayList<>());
+                orders.add(current);
+            }
+            if (row.getOrderProductId() != null) {
+                current.getOrderProducts().add(toOrderProductDto(row));
+            }
+        }
+        return orders;
+    }
+
+    private static OrderProductDto toOrderProductDto(OrderLineRow row) {
+        ProductDto product = new ProductDto();
+        product.setId(row.getProductId());
+        product.setName(row.getProductName());
+        OrderProductDto orderProduct = new OrderProductDto();
+        orderProduct.setId(row.getOrderProductId());
+        orderProduct.setProduct(product);
+        orderProduct.setQuantity(row.getQuantity());
+        return orderProduct;
+    }
+}
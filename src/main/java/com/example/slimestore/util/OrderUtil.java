@@ -4,8 +4,32 @@ import com.example.slimestore.jpa.Order;
 
 public final class OrderUtil {
 
+    private static final char SEPARATOR = ':';
+
     public static String buildOrderStatusMessage(Order.OrderStatus orderStatus, Long orderId) {
-        return String.format("%s:%s", orderStatus.name(), orderId);
+        return orderStatus.name() + SEPARATOR + orderId;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the message was not built by {@link #buildOrderStatusMessage}.
+     */
+    public static Order.OrderStatus parseOrderStatus(String message) {
+        return Order.OrderStatus.valueOf(message.substring(0, separatorIndex(message)));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the message was not built by {@link #buildOrderStatusMessage}.
+     */
+    public static Long parseOrderId(String message) {
+        return Long.valueOf(message.substring(separatorIndex(message) + 1));
+    }
+
+    private static int separatorIndex(String message) {
+        int index = message.indexOf(SEPARATOR);
+        if (index < 0) {
+            throw new IllegalArgumentException("Not an order status message: " + message);
+        }
+        return index;
     }
 
 }
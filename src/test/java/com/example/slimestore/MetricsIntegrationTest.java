@@ -0,0 +1,81 @@
+package com.example.slimestore;
+
+import com.example.slimestore.model.order.OrderDto;
+import com.example.slimestore.model.orderproduct.OrderProductDto;
+import com.example.slimestore.model.product.ProductDto;
+import com.example.slimestore.scheduler.OutboxRelayerScheduler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.http.MediaType;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// tests that the operational metrics are registered and exported, against h2 embedded db and embedded kafka
+@SpringBootTest(properties = "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}")
+@EmbeddedKafka(partitions = 1, topics = "orders")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private OutboxRelayerScheduler outboxRelayerScheduler;
+
+    @Test
+    @Description("given order created and relayed when metrics scraped then outbox, relay and endpoint metrics expected")
+    void givenOrderCreatedAndRelayed_whenScraped_thenMetricsExported() throws Exception {
+        // GIVEN
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createOrderDto())))
+                .andExpect(status().isCreated());
+        outboxRelayerScheduler.processOutboxMessages();
+
+        // WHEN
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // THEN
+        assertThat(meterRegistry.get("outbox.relay.messages").tag("result", "sent").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("orders.create.transaction").tag("outcome", "committed").timer().count()).isEqualTo(1);
+        assertThat(scrape)
+                .contains("outbox_backlog_messages{")
+                .contains("outbox_oldest_age_seconds{")
+                .contains("outbox_relay_batch_seconds_bucket{")
+                .contains("outbox_relay_messages_total{")
+                .contains("outbox_event_latency_seconds_bucket{")
+                .contains("orders_create_transaction_seconds_bucket{")
+                .containsPattern("http_server_requests_seconds_bucket\\{.*uri=\"/api/orders\"");
+    }
+
+    private OrderDto createOrderDto() {
+        ProductDto product = new ProductDto();
+        product.setName("Galaxy Slime");
+        OrderProductDto orderProduct = new OrderProductDto();
+        orderProduct.setProduct(product);
+        orderProduct.setQuantity(1);
+        OrderDto orderDto = new OrderDto();
+        orderDto.setCustomerName("Ivan Ivanov");
+        orderDto.setOrderProducts(List.of(orderProduct));
+        return orderDto;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.slimestore.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// tests replica selection against h2 embedded dbs standing in for the primary and two replicas
+class ReadReplicaDataSourceTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:selection-primary";
+    private static final String REPLICA_A_URL = "jdbc:h2:mem:selection-replica-a";
+    private static final String REPLICA_B_URL = "jdbc:h2:mem:selection-replica-b";
+
+    private final ReadReplicaProperties properties = new ReadReplicaProperties();
+    private final DataSource replicaA = dataSource(REPLICA_A_URL);
+    private final DataSource replicaB = dataSource(REPLICA_B_URL);
+
+    @BeforeEach
+    void setUp() {
+        properties.setMaxLag(Duration.ofSeconds(5));
+        properties.setLagQuery("select seconds from replication_lag");
+        setLag(replicaA, 0);
+        setLag(replicaB, 0);
+    }
+
+    @Test
+    @Description("given two usable replicas when round robin then replicas taken in turn expected")
+    void givenTwoUsableReplicas_whenRoundRobin_thenTakenInTurn() throws SQLException {
+        // GIVEN
+        properties.setSelection(ReadReplicaProperties.Selection.ROUND_ROBIN);
+        ReadReplicaDataSource dataSource = probedDataSource(replicaA, replicaB);
+
+        // WHEN
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            try (Connection connection = dataSource.getConnection()) {
+                urls.add(connection.getMetaData().getURL());
+            }
+        }
+
+        // THEN
+        assertThat(urls).containsExactly(REPLICA_A_URL, REPLICA_B_URL, REPLICA_A_URL, REPLICA_B_URL);
+    }
+
+    @Test
+    @Description("given a replica connection in use when least loaded then the other replica expected")
+    void givenReplicaConnectionInUse_whenLeastLoaded_thenIdleReplicaTaken() throws SQLException {
+        // GIVEN
+        properties.setSelection(ReadReplicaProperties.Selection.LEAST_LOADED);
+        ReadReplicaDataSource dataSource = probedDataSource(replicaA, replicaB);
+
+        // WHEN
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            String firstUrl = first.getMetaData().getURL();
+            String secondUrl = second.getMetaData().getURL();
+            first.close();
+            try (Connection third = dataSource.getConnection()) {
+
+                // THEN
+                assertThat(firstUrl).isEqualTo(REPLICA_A_URL);
+                assertThat(secondUrl).isEqualTo(REPLICA_B_URL);
+                assertThat(third.getMetaData().getURL()).isEqualTo(REPLICA_A_URL);
+            }
+        }
+    }
+
+    @Test
+    @Description("given one replica lagging and one unreachable when connection requested then primary expected")
+    void givenNoUsableReplica_whenGetConnection_thenPrimary() throws SQLException {
+        // GIVEN
+        setLag(replicaA, 60);
+        DataSource unreachable = dataSource("jdbc:h2:tcp://localhost:1/unreachable");
+        ReadReplicaDataSource dataSource = probedDataSource(replicaA, unreachable);
+
+        // WHEN
+        try (Connection connection = dataSource.getConnection()) {
+
+            // THEN
+            assertThat(connection.getMetaData().getURL()).isEqualTo(PRIMARY_URL);
+        }
+    }
+
+    @Test
+    @Description("given replicas not probed yet when connection requested then primary expected")
+    void givenReplicasNotProbed_whenGetConnection_thenPrimary() throws SQLException {
+        // GIVEN
+        ReadReplicaDataSource dataSource = new ReadReplicaDataSource(
+                dataSource(PRIMARY_URL), List.of(replicaA, replicaB), properties);
+
+        // WHEN
+        try (Connection connection = dataSource.getConnection()) {
+
+            // THEN
+            assertThat(connection.getMetaData().getURL()).isEqualTo(PRIMARY_URL);
+        }
+    }
+
+    private ReadReplicaDataSource probedDataSource(DataSource... replicas) {
+        ReadReplicaDataSource dataSource = new ReadReplicaDataSource(dataSource(PRIMARY_URL), List.of(replicas), properties);
+        dataSource.probeLag();
+        return dataSource;
+    }
+
+    private static void setLag(DataSource replica, double seconds) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(replica);
+        jdbcTemplate.execute("create table if not exists replication_lag (seconds double precision)");
+        jdbcTemplate.update("delete from replication_lag");
+        jdbcTemplate.update("insert into replication_lag values (?)", seconds);
+    }
+
+    // keeps each in-memory database between connections, h2 reports the url without the setting
+    private static DataSource dataSource(String url) {
+        return new DriverManagerDataSource(url + ";DB_CLOSE_DELAY=-1");
+    }
+}
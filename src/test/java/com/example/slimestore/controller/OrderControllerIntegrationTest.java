@@ -1,5 +1,8 @@
 package com.example.slimestore.controller;
 
+import com.example.slimestore.config.OrderBatchProperties;
+import com.example.slimestore.config.OrderSearchProperties;
+import com.example.slimestore.config.ProductSearchProperties;
 import com.example.slimestore.jpa.Order;
 import com.example.slimestore.jpa.OrderProduct;
 import com.example.slimestore.jpa.Product;
@@ -7,29 +10,56 @@ import com.example.slimestore.mapper.order.OrderMapper;
 import com.example.slimestore.mapper.order.OrderMapperImpl;
 import com.example.slimestore.mapper.orderproduct.OrderProductMapperImpl;
 import com.example.slimestore.mapper.product.ProductMapperImpl;
+import com.example.slimestore.model.order.IdempotentOrderResult;
+import com.example.slimestore.model.order.IdempotentOrderResult.Outcome;
+import com.example.slimestore.model.order.OrderAdmission;
+import com.example.slimestore.model.order.OrderBatchItemResultDto;
+import com.example.slimestore.model.order.OrderDeleteCriteria;
+import com.example.slimestore.model.order.OrderDto;
+import com.example.slimestore.model.order.OrderStatusDto;
+import com.example.slimestore.service.IdempotentOrderService;
+import com.example.slimestore.service.OrderAdmissionControl;
+import com.example.slimestore.service.OrderBatchService;
 import com.example.slimestore.service.OrderService;
+import com.example.slimestore.service.ProductNameIndex;
+import com.example.slimestore.util.OrderCursorUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Description;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
-import java.util.Arrays;
+import org.springframework.test.web.servlet.MvcResult;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(OrderController.class)
 @Import(value = { OrderMapperImpl.class, OrderProductMapperImpl.class, ProductMapperImpl.class })
+@EnableConfigurationProperties({ OrderBatchProperties.class, OrderSearchProperties.class, ProductSearchProperties.class })
 class OrderControllerIntegrationTest {
 
     @Autowired
@@ -38,12 +68,29 @@ class OrderControllerIntegrationTest {
     @MockitoBean
     private OrderService orderService;
 
+    @MockitoBean
+    private OrderBatchService orderBatchService;
+
+    @MockitoBean
+    private IdempotentOrderService idempotentOrderService;
+
+    @MockitoBean
+    private OrderAdmissionControl orderAdmissionControl;
+
+    @MockitoBean
+    private ProductNameIndex productNameIndex;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @Autowired
     private OrderMapper orderMapper;
 
+    @BeforeEach
+    void admitOrders() {
+        when(orderAdmissionControl.admit()).thenReturn(OrderAdmission.admitted());
+    }
+
     @Test
     @Description("given order when created then 201 expected")
     void testCreateOrderEndpoint() throws Exception {
@@ -70,6 +117,162 @@ class OrderControllerIntegrationTest {
         verify(orderService, times(1)).createOrder(any(Order.class));
     }
 
+    @Test
+    @Description("given idempotency key when order created and retried then 201 and replayed 201 expected")
+    void testCreateOrderEndpointWithIdempotencyKey() throws Exception {
+        // GIVEN
+        Order newOrder = new Order();
+        newOrder.setCustomerName("Ivan Ivanov");
+        newOrder.setOrderProducts(createMockOrderProducts("Galaxy Slime", 1));
+        OrderDto createdOrder = orderMapper.toDto(newOrder);
+        createdOrder.setId(1L);
+
+        when(idempotentOrderService.createOrder(eq("key-1"), any(OrderDto.class))).thenReturn(
+                new IdempotentOrderResult(Outcome.CREATED, createdOrder),
+                new IdempotentOrderResult(Outcome.REPLAYED, createdOrder));
+        String body = objectMapper.writeValueAsString(orderMapper.toDto(newOrder));
+
+        // WHEN & THEN
+        mockMvc.perform(post("/api/orders")
+                        .header(OrderController.IDEMPOTENCY_KEY_HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(OrderController.IDEMPOTENT_REPLAYED_HEADER))
+                .andExpect(jsonPath("$.id").value(1L));
+        mockMvc.perform(post("/api/orders")
+                        .header(OrderController.IDEMPOTENCY_KEY_HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(OrderController.IDEMPOTENT_REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(1L));
+
+        verify(orderService, never()).createOrder(any(Order.class));
+    }
+
+    @Test
+    @Description("given idempotency key reused, in progress or blank when order created then 422, 409 and 400 expected")
+    void testCreateOrderEndpointWithUnusableIdempotencyKey() throws Exception {
+        // GIVEN
+        Order newOrder = new Order();
+        newOrder.setCustomerName("Ivan Ivanov");
+        newOrder.setOrderProducts(createMockOrderProducts("Galaxy Slime", 1));
+        String body = objectMapper.writeValueAsString(orderMapper.toDto(newOrder));
+
+        when(idempotentOrderService.createOrder(eq("reused"), any(OrderDto.class)))
+                .thenReturn(new IdempotentOrderResult(Outcome.KEY_REUSED, null));
+        when(idempotentOrderService.createOrder(eq("running"), any(OrderDto.class)))
+                .thenReturn(new IdempotentOrderResult(Outcome.IN_PROGRESS, null));
+
+        // WHEN & THEN
+        mockMvc.perform(post("/api/orders")
+                        .header(OrderController.IDEMPOTENCY_KEY_HEADER, "reused")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(post("/api/orders")
+                        .header(OrderController.IDEMPOTENCY_KEY_HEADER, "running")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/orders")
+                        .header(OrderController.IDEMPOTENCY_KEY_HEADER, " ")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Description("given outbox backlog past shed threshold when orders created then 429 with retry after expected")
+    void testCreateOrderEndpointRejectedByAdmissionControl() throws Exception {
+        // GIVEN
+        Order newOrder = new Order();
+        newOrder.setCustomerName("Ivan Ivanov");
+        newOrder.setOrderProducts(createMockOrderProducts("Galaxy Slime", 1));
+        OrderDto orderDto = orderMapper.toDto(newOrder);
+
+        when(orderAdmissionControl.admit()).thenReturn(OrderAdmission.rejected(Duration.ofMillis(2500)));
+
+        // WHEN & THEN
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderDto)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"));
+        mockMvc.perform(post("/api/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(orderDto))))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"));
+
+        verify(orderService, never()).createOrder(any(Order.class));
+        verify(orderBatchService, never()).createOrders(anyList());
+    }
+
+    @Test
+    @Description("given outbox backlog past shed threshold when completed key retried then replayed, new key 429 expected")
+    void testCreateOrderEndpointReplaysCompletedKeyBeforeAdmissionControl() throws Exception {
+        // GIVEN
+        Order newOrder = new Order();
+        newOrder.setCustomerName("Ivan Ivanov");
+        newOrder.setOrderProducts(createMockOrderProducts("Galaxy Slime", 1));
+        OrderDto createdOrder = orderMapper.toDto(newOrder);
+        createdOrder.setId(1L);
+        String body = objectMapper.writeValueAsString(orderMapper.toDto(newOrder));
+
+        when(orderAdmissionControl.admit()).thenReturn(OrderAdmission.rejected(Duration.ofSeconds(10)));
+        when(idempotentOrderService.findCompleted(eq("completed"), any(OrderDto.class)))
+                .thenReturn(Optional.of(new IdempotentOrderResult(Outcome.REPLAYED, createdOrder)));
+
+        // WHEN & THEN
+        mockMvc.perform(post("/api/orders")
+                        .header(OrderController.IDEMPOTENCY_KEY_HEADER, "completed")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(OrderController.IDEMPOTENT_REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(1L));
+        verify(orderAdmissionControl, never()).admit();
+
+        mockMvc.perform(post("/api/orders")
+                        .header(OrderController.IDEMPOTENCY_KEY_HEADER, "new")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"));
+        verify(idempotentOrderService, never()).createOrder(any(), any(OrderDto.class));
+    }
+
+    @Test
+    @Description("given orders batch when created then 200 with per-order results expected")
+    void testCreateOrdersBatchEndpoint() throws Exception {
+        // GIVEN
+        Order validOrder = new Order();
+        validOrder.setCustomerName("Ivan Ivanov");
+        validOrder.setOrderProducts(createMockOrderProducts("Galaxy Slime", 1));
+        Order invalidOrder = new Order();
+        invalidOrder.setOrderProducts(createMockOrderProducts("Cloud Slime", 1));
+        List<OrderDto> orderDtos = List.of(orderMapper.toDto(validOrder), orderMapper.toDto(invalidOrder));
+
+        when(orderBatchService.createOrders(anyList())).thenReturn(List.of(
+                OrderBatchItemResultDto.created(0, 1L),
+                OrderBatchItemResultDto.failed(1, "Customer name is required")));
+
+        // WHEN & THEN
+        mockMvc.perform(post("/api/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderDtos)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(2))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].orderId").value(1L))
+                .andExpect(jsonPath("$[1].status").value("FAILED"))
+                .andExpect(jsonPath("$[1].error").value("Customer name is required"));
+
+        verify(orderBatchService, times(1)).createOrders(anyList());
+    }
+
     @Test
     @Description("given order when deleted then 204 expected")
     void testDeleteOrderEndpoint() throws Exception {
@@ -84,32 +287,196 @@ class OrderControllerIntegrationTest {
         verify(orderService, times(1)).deleteOrder(orderId);
     }
 
+    @Test
+    @Description("given order when status requested then status expected, 404 when missing")
+    void testGetOrderStatusEndpoint() throws Exception {
+        // GIVEN
+        when(orderService.getOrderStatus(1L))
+                .thenReturn(Optional.of(new OrderStatusDto(1L, "Ivan Ivanov", Order.OrderStatus.ORDER_CREATED)));
+        when(orderService.getOrderStatus(2L)).thenReturn(Optional.empty());
+
+        // WHEN & THEN
+        mockMvc.perform(get("/api/orders/{id}/status", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1L))
+                .andExpect(jsonPath("$.customerName").value("Ivan Ivanov"))
+                .andExpect(jsonPath("$.status").value("ORDER_CREATED"));
+        mockMvc.perform(get("/api/orders/{id}/status", 2L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Description("given customer when orders counted then count expected")
+    void testCountOrdersEndpoint() throws Exception {
+        // GIVEN
+        when(orderService.countOrdersByCustomer("Ivan Ivanov")).thenReturn(3L);
+
+        // WHEN & THEN
+        mockMvc.perform(get("/api/orders/count").param("customerName", "Ivan Ivanov"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerName").value("Ivan Ivanov"))
+                .andExpect(jsonPath("$.orderCount").value(3));
+    }
+
+    @Test
+    @Description("given customer when orders bulk deleted then deleted count expected")
+    void testBulkDeleteOrdersEndpoint() throws Exception {
+        // GIVEN
+        when(orderBatchService.deleteOrders(OrderDeleteCriteria.byCustomerName("Ivan Ivanov"))).thenReturn(3);
+
+        // WHEN & THEN
+        mockMvc.perform(delete("/api/orders")
+                        .param("customerName", "Ivan Ivanov"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deletedCount").value(3));
+    }
+
+    @Test
+    @Description("given no or several criteria when orders bulk deleted then 400 expected")
+    void testBulkDeleteOrdersEndpointWithInvalidCriteria() throws Exception {
+        // WHEN & THEN
+        mockMvc.perform(delete("/api/orders"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/orders")
+                        .param("customerName", "Ivan Ivanov")
+                        .param("ids", "1", "2"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/orders")
+                        .param("fromId", "10"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(orderBatchService);
+    }
+
     @Test
     @Description("given order when found by filter then 200 expected")
     void testFindOrderByFilterEndpoint() throws Exception {
         // GIVEN
         String itemName = "Cloud Slime";
-        Order order1 = new Order();
-        order1.setId(1L);
-        order1.setCustomerName("Bob");
-        order1.setOrderProducts(createMockOrderProducts(itemName, 2));
-
-        Order order2 = new Order();
-        order2.setId(2L);
-        order2.setCustomerName("Dave");
-        order2.setOrderProducts(createMockOrderProducts(itemName, 1));
+        OrderDto order1 = createMockOrderDto(1L, "Bob", itemName, 2);
+        OrderDto order2 = createMockOrderDto(2L, "Dave", itemName, 1);
 
-        when(orderService.findByProductName(itemName)).thenReturn(Arrays.asList(order1, order2));
+        when(orderService.findByProductName(itemName, null, 50))
+                .thenReturn(Window.from(List.of(order1, order2), ScrollPosition::offset));
 
         // WHEN & THEN
         mockMvc.perform(get("/api/orders/search")
                         .param("itemName", itemName))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$.size()").value(2))
                 .andExpect(jsonPath("$[0].customerName").value("Bob"))
                 .andExpect(jsonPath("$[1].customerName").value("Dave"));
 
-        verify(orderService, times(1)).findByProductName(itemName);
+        verify(orderService, times(1)).findByProductName(itemName, null, 50);
+    }
+
+    @Test
+    @Description("given more orders than page size when found by filter then next page cursor expected")
+    void testFindOrderByFilterEndpointWithCursor() throws Exception {
+        // GIVEN
+        String itemName = "Cloud Slime";
+        OrderDto order = createMockOrderDto(7L, "Bob", itemName, 2);
+
+        when(orderService.findByProductName(itemName, 5L, 1))
+                .thenReturn(Window.from(List.of(order), ScrollPosition::offset, true));
+
+        // WHEN & THEN
+        mockMvc.perform(get("/api/orders/search")
+                        .param("itemName", itemName)
+                        .param("cursor", OrderCursorUtil.encodeCursor(5L))
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", OrderCursorUtil.encodeCursor(7L)))
+                .andExpect(jsonPath("$.size()").value(1));
+    }
+
+    @Test
+    @Description("given name with typo when found by fuzzy filter then orders of the matching products expected")
+    void testFindOrderByFuzzyFilterEndpoint() throws Exception {
+        // GIVEN
+        String itemName = "Galxy Slime";
+        OrderDto order = createMockOrderDto(3L, "Bob", "Galaxy Slime", 1);
+
+        when(productNameIndex.search(itemName, ProductNameIndex.MatchMode.FUZZY, 100))
+                .thenReturn(List.of(new Product(11L, "Galaxy Slime", null)));
+        when(orderService.findByProductIds(List.of(11L), null, 50))
+                .thenReturn(Window.from(List.of(order), ScrollPosition::offset));
+
+        // WHEN & THEN
+        mockMvc.perform(get("/api/orders/search")
+                        .param("itemName", itemName)
+                        .param("match", "fuzzy"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(1))
+                .andExpect(jsonPath("$[0].id").value(3));
+
+        verify(orderService, never()).findByProductName(any(), any(), anyInt());
+    }
+
+    @Test
+    @Description("given unknown match mode when found by filter then 400 expected")
+    void testFindOrderByFilterEndpointWithInvalidMatchMode() throws Exception {
+        // WHEN & THEN
+        mockMvc.perform(get("/api/orders/search")
+                        .param("itemName", "Cloud Slime")
+                        .param("match", "soundex"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(orderService, productNameIndex);
+    }
+
+    @Test
+    @Description("given malformed cursor when found by filter then 400 expected")
+    void testFindOrderByFilterEndpointWithInvalidCursor() throws Exception {
+        // WHEN & THEN
+        mockMvc.perform(get("/api/orders/search")
+                        .param("itemName", "Cloud Slime")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    @Description("given orders when streamed by filter then one json document per line expected")
+    void testStreamOrdersByFilterEndpoint() throws Exception {
+        // GIVEN
+        String itemName = "Cloud Slime";
+        doAnswer(invocation -> {
+            Consumer<OrderDto> consumer = invocation.getArgument(1);
+            consumer.accept(createMockOrderDto(1L, "Bob", itemName, 2));
+            consumer.accept(createMockOrderDto(2L, "Dave", itemName, 1));
+            return null;
+        }).when(orderService).streamByProductName(eq(itemName), any());
+
+        // WHEN
+        MvcResult result = mockMvc.perform(get("/api/orders/search/stream")
+                        .param("itemName", itemName))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // THEN
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines.get(1), OrderDto.class).getCustomerName()).isEqualTo("Dave");
+    }
+
+    private OrderDto createMockOrderDto(Long id, String customerName, String productName, int quantity) {
+        return orderMapper.toDto(createMockOrder(id, customerName, productName, quantity));
+    }
+
+    private Order createMockOrder(Long id, String customerName, String productName, int quantity) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerName(customerName);
+        order.setOrderProducts(createMockOrderProducts(productName, quantity));
+        return order;
     }
 
     private List<OrderProduct> createMockOrderProducts(String productName, int quantity) {
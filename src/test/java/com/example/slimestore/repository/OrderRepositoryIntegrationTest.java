@@ -3,16 +3,22 @@ package com.example.slimestore.repository;
 import com.example.slimestore.jpa.Order;
 import com.example.slimestore.jpa.OrderProduct;
 import com.example.slimestore.jpa.Product;
+import com.example.slimestore.model.order.OrderLineRow;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 // test order repository with h2 embedded db
 @DataJpaTest
@@ -22,6 +28,8 @@ class OrderRepositoryIntegrationTest {
     private OrderRepository orderRepository;
     @Autowired
     private ProductRepository productRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     @BeforeEach
     void setupCatalogProducts() {
@@ -65,11 +73,102 @@ class OrderRepositoryIntegrationTest {
         orderRepository.saveAll(List.of(order1, order2, order3, order4));
 
         // WHEN
-        List<Order> foundOrders = orderRepository.findByOrderProducts_Product_Name("Cloud Slime");
+        List<Long> foundOrderIds = orderRepository.findOrderIdsByProductName("Cloud Slime", Long.MIN_VALUE, Limit.unlimited());
+
+        // THEN
+        assertThat(foundOrderIds).isNotNull();
+        assertThat(foundOrderIds.size()).isEqualTo(2);
+        assertThat(foundOrderIds).containsExactly(order2.getId(), order4.getId());
+    }
+
+    @Test
+    void testFindOrderByFilterReturnsEachOrderOnceWithAllItems() {
+        // GIVEN
+        Order order = new Order();
+        order.setCustomerName("Erin");
+        List<OrderProduct> items = List.of(
+                createOrderProduct("Cloud Slime", 1),
+                createOrderProduct("Cloud Slime", 2),
+                createOrderProduct("Butter Slime", 1));
+        items.forEach(item -> item.setOrder(order));
+        order.setOrderProducts(items);
+        orderRepository.save(order);
+        entityManager.flush();
+        entityManager.clear();
+
+        // WHEN
+        List<Long> foundOrderIds = orderRepository.findOrderIdsByProductName("Cloud Slime", Long.MIN_VALUE, Limit.unlimited());
+        List<OrderLineRow> foundRows = orderRepository.findOrderRowsByIdIn(foundOrderIds);
+
+        // THEN
+        assertThat(foundRows).extracting(OrderLineRow::getOrderId).containsOnly(order.getId());
+        assertThat(foundRows).extracting(OrderLineRow::getProductName)
+                .containsExactlyInAnyOrder("Cloud Slime", "Cloud Slime", "Butter Slime");
+    }
+
+    @Test
+    void testFindOrderRowsByIdIn() {
+        // GIVEN
+        Order order = new Order();
+        order.setCustomerName("Grace");
+        List<OrderProduct> items = List.of(
+                createOrderProduct("Cloud Slime", 2),
+                createOrderProduct("Butter Slime", 1));
+        items.forEach(item -> item.setOrder(order));
+        order.setOrderProducts(items);
+        Order emptyOrder = new Order();
+        emptyOrder.setCustomerName("Heidi");
+        emptyOrder.setOrderProducts(List.of());
+        orderRepository.saveAll(List.of(order, emptyOrder));
+        entityManager.flush();
+        entityManager.clear();
+
+        // WHEN
+        List<OrderLineRow> rows = orderRepository.findOrderRowsByIdIn(List.of(order.getId(), emptyOrder.getId()));
+
+        // THEN
+        assertThat(rows)
+                .extracting(OrderLineRow::getOrderId, OrderLineRow::getCustomerName,
+                        OrderLineRow::getProductName, OrderLineRow::getQuantity)
+                .containsExactly(
+                        tuple(order.getId(), "Grace", "Cloud Slime", 2),
+                        tuple(order.getId(), "Grace", "Butter Slime", 1),
+                        tuple(emptyOrder.getId(), "Heidi", null, null));
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void testFindOrderIdsByFilterAfterKeysetPosition() {
+        // GIVEN
+        List<Order> orders = orderRepository.saveAll(List.of(
+                createOrderWithItems("Alice", "Cloud Slime", 1),
+                createOrderWithItems("Bob", "Cloud Slime", 1),
+                createOrderWithItems("Charlie", "Cloud Slime", 1)));
+
+        // WHEN
+        List<Long> firstPage = orderRepository.findOrderIdsByProductName("Cloud Slime", Long.MIN_VALUE, Limit.of(2));
+        List<Long> secondPage = orderRepository.findOrderIdsByProductName("Cloud Slime", firstPage.getLast(), Limit.of(2));
+
+        // THEN
+        assertThat(firstPage).containsExactly(orders.get(0).getId(), orders.get(1).getId());
+        assertThat(secondPage).containsExactly(orders.get(2).getId());
+    }
+
+    @Test
+    void testStreamOrderIdsByFilter() {
+        // GIVEN
+        Order order1 = createOrderWithItems("Alice", "Fluffy Slime", 1);
+        Order order2 = createOrderWithItems("Bob", "Fluffy Slime", 2);
+        orderRepository.saveAll(List.of(order1, order2));
+
+        // WHEN
+        List<Long> streamedIds;
+        try (Stream<Long> orderIds = orderRepository.streamOrderIdsByProductName("Fluffy Slime")) {
+            streamedIds = orderIds.toList();
+        }
 
         // THEN
-        assertThat(foundOrders).isNotNull();
-        assertThat(foundOrders.size()).isEqualTo(2);
+        assertThat(streamedIds).containsExactly(order1.getId(), order2.getId());
     }
 
     private Product createCatalogProduct(String name) {
@@ -0,0 +1,122 @@
+package com.example.slimestore.repository;
+
+import com.example.slimestore.jpa.OutboxMessage;
+import com.example.slimestore.jpa.OutboxPartition;
+import com.example.slimestore.model.outbox.OutboxBacklog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// tests outbox message repository with h2 embedded db
+@DataJpaTest
+class OutboxMessageRepositoryIntegrationTest {
+
+    private static final String ORDERS_TOPIC = "orders";
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    @Autowired
+    private OutboxPartitionRepository outboxPartitionRepository;
+
+    @Test
+    @Description("given outbox messages when claim batch then oldest messages are claimed up to the limit")
+    void givenOutboxMessages_whenClaimBatch_thenOldestMessagesClaimedUpToLimit() {
+        // GIVEN
+        LocalDateTime now = LocalDateTime.now();
+        outboxMessageRepository.saveAll(List.of(
+                createOutboxMessage("third", now),
+                createOutboxMessage("first", now.minusMinutes(2)),
+                createOutboxMessage("second", now.minusMinutes(1)),
+                createOutboxMessage("fourth", now.plusMinutes(1))
+        ));
+
+        // WHEN
+        List<OutboxMessage> claimed = outboxMessageRepository.claimBatch(1, 0, Limit.of(3));
+
+        // THEN
+        assertThat(claimed)
+                .extracting(OutboxMessage::getPayload)
+                .containsExactly("first", "second", "third");
+    }
+
+    @Test
+    @Description("given keyed outbox messages when claim batch of a partition then only messages of its orders are claimed")
+    void givenKeyedOutboxMessages_whenClaimPartitionBatch_thenOnlyPartitionMessagesClaimed() {
+        // GIVEN
+        LocalDateTime now = LocalDateTime.now();
+        outboxMessageRepository.saveAll(List.of(
+                createOutboxMessage("order 3 deleted", now, 3L),
+                createOutboxMessage("order 3 created", now.minusMinutes(1), 3L),
+                createOutboxMessage("order 4 created", now.minusMinutes(1), 4L),
+                createOutboxMessage("order 5 created", now.minusMinutes(2), 5L),
+                createOutboxMessage("unkeyed", now.minusMinutes(3), null)
+        ));
+
+        // WHEN
+        List<OutboxMessage> odd = outboxMessageRepository.claimBatch(2, 1, Limit.of(10));
+        List<OutboxMessage> even = outboxMessageRepository.claimBatch(2, 0, Limit.of(10));
+
+        // THEN
+        assertThat(odd)
+                .extracting(OutboxMessage::getPayload)
+                .containsExactly("order 5 created", "order 3 created", "order 3 deleted");
+        assertThat(even)
+                .extracting(OutboxMessage::getPayload)
+                .containsExactly("unkeyed", "order 4 created");
+    }
+
+    @Test
+    @Description("given partition checkpoints when read, measured and truncated then only messages past them wait and only those behind are deleted")
+    void givenCheckpoints_whenReadMeasuredAndTruncated_thenCheckpointsRespected() {
+        // GIVEN
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        List<OutboxMessage> messages = outboxMessageRepository.saveAll(List.of(
+                createOutboxMessage("order 2 created", now.minusMinutes(3), 2L),
+                createOutboxMessage("order 2 deleted", now.minusMinutes(2), 2L),
+                createOutboxMessage("order 1 created", now.minusMinutes(1), 1L),
+                createOutboxMessage("order 4 created", now, 4L)
+        ));
+        OutboxMessage evenCheckpoint = messages.getFirst();
+        outboxPartitionRepository.saveAll(List.of(
+                new OutboxPartition(0, evenCheckpoint.getCreatedAt(), evenCheckpoint.getId()),
+                new OutboxPartition(1, null, null)));
+
+        // WHEN
+        List<OutboxMessage> visibleEven = outboxMessageRepository.findBatchAfter(2, 0,
+                evenCheckpoint.getCreatedAt(), evenCheckpoint.getId(), now.minusSeconds(1), Limit.of(10));
+        OutboxBacklog backlog = outboxMessageRepository.measureUnrelayedBacklog(2);
+        int deleted = outboxMessageRepository.deleteRelayedBefore(now.plusMinutes(1), 2);
+
+        // THEN
+        assertThat(visibleEven)
+                .extracting(OutboxMessage::getPayload)
+                .containsExactly("order 2 deleted");
+        assertThat(backlog.getSize()).isEqualTo(3);
+        assertThat(backlog.getOldestCreatedAt()).isEqualTo(messages.get(1).getCreatedAt());
+        assertThat(deleted).isEqualTo(1);
+        assertThat(outboxMessageRepository.findAll())
+                .extracting(OutboxMessage::getPayload)
+                .containsExactlyInAnyOrder("order 2 deleted", "order 1 created", "order 4 created");
+    }
+
+    private OutboxMessage createOutboxMessage(String payload, LocalDateTime createdAt) {
+        return createOutboxMessage(payload, createdAt, null);
+    }
+
+    private OutboxMessage createOutboxMessage(String payload, LocalDateTime createdAt, Long aggregateId) {
+        OutboxMessage message = new OutboxMessage();
+        message.setTopic(ORDERS_TOPIC);
+        message.setPayload(payload);
+        message.setCreatedAt(createdAt);
+        message.setAggregateId(aggregateId);
+        return message;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.slimestore.scheduler;
+
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.jpa.Product;
+import com.example.slimestore.repository.OutboxMessageRepository;
+import com.example.slimestore.service.OrderService;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+// tests the append-only outbox storage mode, against h2 embedded db and embedded kafka
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "app.outbox.storage-mode=append-only",
+        "app.outbox.append-only.visibility-delay=0s",
+        "app.outbox.append-only.write-timeout=200ms",
+        "app.outbox.append-only.retention=0s",
+        "app.outbox.append-only.truncate-interval=1h" })
+@EmbeddedKafka(partitions = 1, topics = "orders")
+class OutboxLogTruncatorIntegrationTest {
+
+    private static final String ORDERS_TOPIC = "orders";
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OutboxRelayerScheduler outboxRelayerScheduler;
+    @Autowired
+    private OutboxLogTruncator outboxLogTruncator;
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Consumer<String, byte[]> consumer;
+
+    @BeforeEach
+    void setupKafkaConsumer() {
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("append-only-test", "false", embeddedKafka);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        consumer = new DefaultKafkaConsumerFactory<String, byte[]>(consumerProps).createConsumer();
+        consumer.subscribe(Collections.singleton(ORDERS_TOPIC));
+    }
+
+    @AfterEach
+    void tearDownKafkaConsumer() {
+        if (consumer != null) {
+            consumer.close();
+        }
+    }
+
+    @Test
+    @Description("given append-only outbox when relayed twice and truncated then messages are published once, kept, then deleted in bulk")
+    void givenAppendOnlyOutbox_whenRelayedAndTruncated_thenPublishedOnceAndReclaimed() {
+        // GIVEN
+        Long orderId = orderService.createOrder(createOrder()).getId();
+        orderService.deleteOrder(orderId);
+
+        // WHEN
+        int firstRun = outboxRelayerScheduler.processOutboxMessages();
+        long keptAfterRelay = outboxMessageRepository.count();
+        int secondRun = outboxRelayerScheduler.processOutboxMessages();
+        int truncated = outboxLogTruncator.truncate();
+
+        // THEN
+        assertThat(firstRun).isEqualTo(2);
+        assertThat(keptAfterRelay).isEqualTo(2);
+        assertThat(secondRun).isZero();
+        assertThat(truncated).isEqualTo(2);
+        assertThat(outboxMessageRepository.count()).isZero();
+        assertThat(KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(5), 2).count()).isEqualTo(2);
+    }
+
+    @Test
+    @Description("given transaction writing to append-only outbox when it outlasts the write timeout then rolled back")
+    void givenSlowOutboxWriter_whenCommitted_thenRolledBack() {
+        // GIVEN
+        long messagesBefore = outboxMessageRepository.count();
+
+        // WHEN
+        Throwable thrown = catchThrowable(() -> transactionTemplate.executeWithoutResult(status -> {
+            orderService.createOrder(createOrder());
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+
+        // THEN
+        assertThat(thrown).isInstanceOf(TransactionTimedOutException.class);
+        assertThat(outboxMessageRepository.count()).isEqualTo(messagesBefore);
+    }
+
+    private Order createOrder() {
+        Order order = new Order();
+        order.setCustomerName("Galina");
+        order.setOrderProducts(new ArrayList<>());
+        OrderProduct orderProduct = new OrderProduct();
+        orderProduct.setProduct(new Product(null, "Jelly Slime", null));
+        orderProduct.setQuantity(1);
+        order.getOrderProducts().add(orderProduct);
+        return order;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.slimestore.scheduler;
+
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.jpa.Product;
+import com.example.slimestore.repository.OutboxMessageRepository;
+import com.example.slimestore.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// tests the relay wake-up on commit with polling too slow to matter, against h2 embedded db and embedded kafka
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "app.outbox.relay.enabled=true",
+        "app.outbox.delay=600000",
+        "app.outbox.relay.min-poll-interval=10m" })
+@EmbeddedKafka(partitions = 1, topics = "orders")
+class OutboxRelayTriggerIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Test
+    @Description("given idle relay when order created then its outbox message is relayed right after the commit")
+    void givenIdleRelay_whenOrderCreated_thenRelayedAfterCommit() throws InterruptedException {
+        // GIVEN
+        Order order = new Order();
+        order.setCustomerName("Elena");
+        order.setOrderProducts(new ArrayList<>());
+        OrderProduct orderProduct = new OrderProduct();
+        orderProduct.setProduct(new Product(null, "Fluffy Slime", null));
+        orderProduct.setQuantity(1);
+        order.getOrderProducts().add(orderProduct);
+
+        // WHEN
+        orderService.createOrder(order);
+
+        // THEN
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outboxMessageRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(outboxMessageRepository.count()).isZero();
+    }
+}
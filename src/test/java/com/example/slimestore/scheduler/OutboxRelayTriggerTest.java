@@ -0,0 +1,149 @@
+package com.example.slimestore.scheduler;
+
+import com.example.slimestore.config.OutboxProperties;
+import com.example.slimestore.service.OutboxMessagesSavedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTriggerTest {
+
+    private final OutboxRelayerScheduler outboxRelayerScheduler = mock(OutboxRelayerScheduler.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @Description("given virtual thread executor when triggered then relay runs on a virtual thread")
+    void whenTriggered_thenRelayRunsOnVirtualThread() throws Exception {
+        // GIVEN
+        CountDownLatch relayed = new CountDownLatch(1);
+        AtomicBoolean virtual = new AtomicBoolean();
+        doAnswer(invocation -> {
+            virtual.set(Thread.currentThread().isVirtual());
+            relayed.countDown();
+            return 0;
+        }).when(outboxRelayerScheduler).processOutboxMessages();
+        OutboxRelayTrigger trigger = createTrigger(new OutboxProperties());
+
+        // WHEN
+        trigger.trigger();
+
+        // THEN
+        assertThat(relayed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(virtual).isTrue();
+    }
+
+    @Test
+    @Description("given relay run in flight when triggered again then the tick is skipped")
+    void givenRelayInFlight_whenTriggered_thenSkipped() throws Exception {
+        // GIVEN
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 0;
+        }).when(outboxRelayerScheduler).processOutboxMessages();
+        OutboxRelayTrigger trigger = createTrigger(new OutboxProperties());
+        trigger.trigger();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // WHEN
+        trigger.trigger();
+        release.countDown();
+
+        // THEN
+        verify(outboxRelayerScheduler, timeout(1000).times(1)).processOutboxMessages();
+        assertThat(meterRegistry.get("outbox.relay.skipped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("given relay run in flight when outbox messages committed then the relay runs once more afterwards")
+    void givenRelayInFlight_whenWokenUp_thenRunsAgain() throws Exception {
+        // GIVEN
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 1;
+        }).when(outboxRelayerScheduler).processOutboxMessages();
+        OutboxRelayTrigger trigger = createTrigger(new OutboxProperties());
+        trigger.trigger();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // WHEN
+        trigger.onOutboxMessagesSaved(new OutboxMessagesSavedEvent(1, LocalDateTime.now()));
+        trigger.onOutboxMessagesSaved(new OutboxMessagesSavedEvent(1, LocalDateTime.now()));
+        release.countDown();
+
+        // THEN
+        verify(outboxRelayerScheduler, timeout(1000).times(2)).processOutboxMessages();
+        verify(outboxRelayerScheduler, after(200).times(2)).processOutboxMessages();
+        assertThat(meterRegistry.get("outbox.relay.skipped").counter().count()).isZero();
+        assertThat(meterRegistry.get("outbox.relay.wakeups").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @Description("given empty outbox when polled repeatedly then the poll interval backs off up to the delay and resets on wake-up")
+    void givenEmptyOutbox_whenPolled_thenIntervalBacksOffAndResetsOnWakeUp() {
+        // GIVEN
+        OutboxProperties outboxProperties = new OutboxProperties();
+        outboxProperties.setDelay(500);
+        outboxProperties.getRelay().setMinPollInterval(Duration.ofMillis(100));
+        outboxProperties.getRelay().setBackoffMultiplier(2.0);
+        OutboxRelayTrigger trigger = new OutboxRelayTrigger(outboxRelayerScheduler, new SyncTaskExecutor(),
+                outboxProperties, meterRegistry);
+        when(outboxRelayerScheduler.processOutboxMessages()).thenReturn(0);
+
+        // WHEN
+        List<Duration> intervals = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            trigger.trigger();
+            intervals.add(trigger.getPollInterval());
+        }
+        trigger.onOutboxMessagesSaved(new OutboxMessagesSavedEvent(1, LocalDateTime.now()));
+
+        // THEN
+        assertThat(intervals).containsExactly(
+                Duration.ofMillis(200), Duration.ofMillis(400), Duration.ofMillis(500), Duration.ofMillis(500));
+        // the wake-up run on the calling thread found nothing, so it backed off once from the minimum
+        assertThat(trigger.getPollInterval()).isEqualTo(Duration.ofMillis(200));
+        verify(outboxRelayerScheduler, times(5)).processOutboxMessages();
+    }
+
+    @Test
+    @Description("given append-only outbox when outbox messages committed then the relay wakes up after the visibility delay")
+    void givenAppendOnlyOutbox_whenWokenUp_thenRunsAfterVisibilityDelay() {
+        // GIVEN
+        OutboxProperties outboxProperties = new OutboxProperties();
+        outboxProperties.setStorageMode(OutboxProperties.StorageMode.APPEND_ONLY);
+        outboxProperties.getAppendOnly().setVisibilityDelay(Duration.ofMillis(500));
+        OutboxRelayTrigger trigger = createTrigger(outboxProperties);
+
+        // WHEN
+        trigger.onOutboxMessagesSaved(new OutboxMessagesSavedEvent(1, LocalDateTime.now()));
+
+        // THEN
+        verify(outboxRelayerScheduler, after(300).never()).processOutboxMessages();
+        verify(outboxRelayerScheduler, timeout(1000).times(1)).processOutboxMessages();
+    }
+
+    private OutboxRelayTrigger createTrigger(OutboxProperties outboxProperties) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("outbox-relay-");
+        executor.setVirtualThreads(true);
+        return new OutboxRelayTrigger(outboxRelayerScheduler, executor, outboxProperties, meterRegistry);
+    }
+}
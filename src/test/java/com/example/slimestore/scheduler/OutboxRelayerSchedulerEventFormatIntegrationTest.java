@@ -0,0 +1,114 @@
+package com.example.slimestore.scheduler;
+
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.jpa.Product;
+import com.example.slimestore.model.order.OrderEvent;
+import com.example.slimestore.service.OrderService;
+import com.example.slimestore.util.OrderEventCodec;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.slimestore.jpa.Order.OrderStatus.ORDER_CREATED;
+import static com.example.slimestore.jpa.Order.OrderStatus.ORDER_DELETED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// tests the keyed binary order events end to end, against h2 embedded db and embedded kafka
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "app.outbox.event-format=binary" })
+@EmbeddedKafka(partitions = 3, topics = "orders")
+class OutboxRelayerSchedulerEventFormatIntegrationTest {
+
+    private static final String ORDERS_TOPIC = "orders";
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OutboxRelayerScheduler outboxRelayerScheduler;
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    private Consumer<String, byte[]> consumer;
+
+    @BeforeEach
+    void setupKafkaConsumer() {
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("event-format-test", "false", embeddedKafka);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        consumer = new DefaultKafkaConsumerFactory<String, byte[]>(consumerProps).createConsumer();
+        consumer.subscribe(Collections.singleton(ORDERS_TOPIC));
+    }
+
+    @AfterEach
+    void tearDownKafkaConsumer() {
+        if (consumer != null) {
+            consumer.close();
+        }
+    }
+
+    @Test
+    @Description("given order created and deleted when relayed then both events are keyed by order id, versioned and in order")
+    void givenOrderCreatedAndDeleted_whenRelayed_thenKeyedVersionedEventsInOrder() {
+        // GIVEN
+        Long orderId = orderService.createOrder(createOrder()).getId();
+        orderService.deleteOrder(orderId);
+
+        // WHEN
+        outboxRelayerScheduler.processOutboxMessages();
+
+        // THEN
+        List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (records.size() < 2 && System.nanoTime() < deadline) {
+            ConsumerRecords<String, byte[]> polled = consumer.poll(Duration.ofMillis(500));
+            polled.records(ORDERS_TOPIC).forEach(records::add);
+        }
+        assertThat(records).hasSize(2);
+        assertThat(records).extracting(ConsumerRecord::key).containsOnly(orderId.toString());
+        assertThat(records).extracting(ConsumerRecord::partition).containsOnly(records.getFirst().partition());
+        for (ConsumerRecord<String, byte[]> record : records) {
+            Header version = record.headers().lastHeader(OrderEventCodec.SCHEMA_VERSION_HEADER);
+            assertThat(version.value()).containsExactly(OrderEventCodec.SCHEMA_VERSION);
+        }
+        assertThat(records).extracting(record -> OrderEventCodec.read(record.headers(), record.value()))
+                .extracting(OrderEvent::getType, OrderEvent::getOrderId)
+                .containsExactly(
+                        Tuple.tuple(ORDER_CREATED, orderId),
+                        Tuple.tuple(ORDER_DELETED, orderId));
+    }
+
+    private Order createOrder() {
+        Order order = new Order();
+        order.setCustomerName("Dmitry");
+        order.setOrderProducts(new ArrayList<>());
+        OrderProduct orderProduct = new OrderProduct();
+        orderProduct.setProduct(new Product(null, "Cosmic Slime", null));
+        orderProduct.setQuantity(1);
+        order.getOrderProducts().add(orderProduct);
+        return order;
+    }
+}
@@ -32,7 +32,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 @Testcontainers
-@SpringBootTest
+@SpringBootTest(properties = "app.outbox.relay.workers=1")
 class OutboxRelayerSchedulerIntegrationTest {
 
     private static final String ORDERS_TOPIC = "orders";
@@ -89,7 +89,7 @@ class OutboxRelayerSchedulerIntegrationTest {
         OutboxMessage message2 = createOutboxMessage(id2, payload2);
         List<OutboxMessage> messages = List.of(message1, message2);
 
-        when(outboxMessageRepository.findAll()).thenReturn(messages);
+        when(outboxMessageRepository.claimBatch(anyInt(), anyInt(), any())).thenReturn(messages);
 
         // WHEN
         outboxRelayerScheduler.processOutboxMessages();
@@ -103,9 +103,8 @@ class OutboxRelayerSchedulerIntegrationTest {
 
         assertThat(receivedMessages).containsExactlyInAnyOrder(payload1, payload2);
 
-        verify(outboxMessageRepository, times(1)).findAll();
-        verify(outboxMessageRepository, times(1)).delete(message1);
-        verify(outboxMessageRepository, times(1)).delete(message2);
+        verify(outboxMessageRepository, times(1)).claimBatch(eq(1), eq(0), any());
+        verify(outboxMessageRepository, times(1)).deleteAllByIdInBatch(List.of(id1, id2));
 
         verifyNoMoreInteractions(outboxMessageRepository);
     }
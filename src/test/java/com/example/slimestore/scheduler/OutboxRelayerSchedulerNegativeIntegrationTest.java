@@ -1,12 +1,19 @@
 package com.example.slimestore.scheduler;
 
+import com.example.slimestore.config.OutboxProperties;
+import com.example.slimestore.config.SchedulingConfig;
 import com.example.slimestore.jpa.OutboxMessage;
 import com.example.slimestore.repository.OutboxMessageRepository;
+import com.example.slimestore.service.OutboxRelayHealth;
 import com.example.slimestore.util.OrderUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -14,17 +21,22 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static com.example.slimestore.jpa.Order.OrderStatus.ORDER_CREATED;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
-@DataJpaTest
-@Import(OutboxRelayerScheduler.class)
+@DataJpaTest(properties = "app.outbox.relay.workers=1")
+@Import({ OutboxRelayerScheduler.class, OutboxRelayHealth.class, SchedulingConfig.class, SimpleMeterRegistry.class })
+@EnableConfigurationProperties(OutboxProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
 class OutboxRelayerSchedulerNegativeIntegrationTest {
 
     private static final String ORDERS_TOPIC = "orders";
@@ -35,8 +47,11 @@ class OutboxRelayerSchedulerNegativeIntegrationTest {
     @Autowired
     private OutboxRelayerScheduler outboxRelayerScheduler;
 
+    @Autowired
+    private OutboxRelayHealth outboxRelayHealth;
+
     @MockitoBean
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
 
     @Test
     void whenKafkaSendFails_thenMessageIsNotDeletedFromOutbox() {
@@ -44,18 +59,65 @@ class OutboxRelayerSchedulerNegativeIntegrationTest {
         long id = 1L;
         String payload = OrderUtil.buildOrderStatusMessage(ORDER_CREATED, id);
         OutboxMessage message = createOutboxMessage(id, payload);
-        when(outboxMessageRepository.findAll()).thenReturn(List.of(message));
-        doThrow(new RuntimeException("Kafka Broker is down")).when(kafkaTemplate).send(any(), any());
+        when(outboxMessageRepository.claimBatch(anyInt(), anyInt(), any())).thenReturn(List.of(message));
+        doThrow(new RuntimeException("Kafka Broker is down")).when(kafkaTemplate).send(any(ProducerRecord.class));
         doNothing().when(outboxMessageRepository).delete(any());
 
         // WHEN
         outboxRelayerScheduler.processOutboxMessages();
 
         // THEN
-        verify(kafkaTemplate, times(1)).send(message.getTopic(), message.getPayload());
+        verify(kafkaTemplate, times(1)).send(argThat(keyedBy(id)));
         verify(outboxMessageRepository, never()).delete(any());
+        verify(outboxMessageRepository, never()).deleteAllByIdInBatch(any());
         when(outboxMessageRepository.findById(id)).thenReturn(Optional.of(message));
         assertThat(outboxMessageRepository.findById(id)).isPresent();
+        assertThat(outboxRelayHealth.getConsecutiveFailedBatches()).isPositive();
+    }
+
+    @Test
+    void whenKafkaDoesNotAcknowledgeMessage_thenOnlyAcknowledgedMessagesAreDeleted() {
+        // GIVEN
+        long ackedId = 1L;
+        long failedId = 2L;
+        OutboxMessage ackedMessage = createOutboxMessage(ackedId, OrderUtil.buildOrderStatusMessage(ORDER_CREATED, ackedId));
+        OutboxMessage failedMessage = createOutboxMessage(failedId, OrderUtil.buildOrderStatusMessage(ORDER_CREATED, failedId));
+        when(outboxMessageRepository.claimBatch(anyInt(), anyInt(), any())).thenReturn(List.of(ackedMessage, failedMessage));
+        when(kafkaTemplate.send(argThat(keyedBy(ackedId))))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaTemplate.send(argThat(keyedBy(failedId))))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Not enough replicas")));
+
+        // WHEN
+        outboxRelayerScheduler.processOutboxMessages();
+
+        // THEN
+        verify(kafkaTemplate, times(2)).send(any(ProducerRecord.class));
+        verify(outboxMessageRepository, times(1)).deleteAllByIdInBatch(List.of(ackedId));
+        verify(outboxMessageRepository, never()).delete(any());
+        assertThat(outboxRelayHealth.getConsecutiveFailedBatches()).isZero();
+    }
+
+    @Test
+    void whenKafkaDoesNotAcknowledgeEarlierMessage_thenLaterAcknowledgedMessagesStayInOutbox() {
+        // GIVEN
+        long failedId = 1L;
+        long ackedId = 2L;
+        OutboxMessage failedMessage = createOutboxMessage(failedId, OrderUtil.buildOrderStatusMessage(ORDER_CREATED, failedId));
+        OutboxMessage ackedMessage = createOutboxMessage(ackedId, OrderUtil.buildOrderStatusMessage(ORDER_CREATED, ackedId));
+        when(outboxMessageRepository.claimBatch(anyInt(), anyInt(), any())).thenReturn(List.of(failedMessage, ackedMessage));
+        when(kafkaTemplate.send(argThat(keyedBy(failedId))))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Not enough replicas")));
+        when(kafkaTemplate.send(argThat(keyedBy(ackedId))))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // WHEN
+        outboxRelayerScheduler.processOutboxMessages();
+
+        // THEN
+        verify(kafkaTemplate, times(2)).send(any(ProducerRecord.class));
+        verify(outboxMessageRepository, never()).deleteAllByIdInBatch(any());
+        verify(outboxMessageRepository, never()).delete(any());
     }
 
     private OutboxMessage createOutboxMessage(Long id, String payload) {
@@ -64,6 +126,12 @@ class OutboxRelayerSchedulerNegativeIntegrationTest {
         message.setTopic(ORDERS_TOPIC);
         message.setPayload(payload);
         message.setCreatedAt(LocalDateTime.now());
+        message.setAggregateId(id);
+        message.setEventType(ORDER_CREATED.name());
         return message;
     }
+
+    private static ArgumentMatcher<ProducerRecord<String, byte[]>> keyedBy(Long orderId) {
+        return record -> record != null && ORDERS_TOPIC.equals(record.topic()) && orderId.toString().equals(record.key());
+    }
 }
\ No newline at end of file
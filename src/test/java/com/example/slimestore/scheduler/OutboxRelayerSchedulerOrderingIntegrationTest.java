@@ -0,0 +1,143 @@
+package com.example.slimestore.scheduler;
+
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.jpa.Product;
+import com.example.slimestore.model.order.OrderEvent;
+import com.example.slimestore.repository.OutboxMessageRepository;
+import com.example.slimestore.service.OrderService;
+import com.example.slimestore.util.OrderEventCodec;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.example.slimestore.jpa.Order.OrderStatus.ORDER_CREATED;
+import static com.example.slimestore.jpa.Order.OrderStatus.ORDER_DELETED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// tests per-order ordering of the partitioned relay under concurrent writes, against h2 embedded db and embedded kafka
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "app.outbox.relay.workers=4",
+        "app.outbox.batch-size=5" })
+@EmbeddedKafka(partitions = 3, topics = "orders")
+class OutboxRelayerSchedulerOrderingIntegrationTest {
+
+    private static final String ORDERS_TOPIC = "orders";
+    private static final int WRITERS = 4;
+    private static final int ORDERS_PER_WRITER = 10;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OutboxRelayerScheduler outboxRelayerScheduler;
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    private Consumer<String, byte[]> consumer;
+
+    @BeforeEach
+    void setupKafkaConsumer() {
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("ordering-test", "false", embeddedKafka);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        consumer = new DefaultKafkaConsumerFactory<String, byte[]>(consumerProps).createConsumer();
+        consumer.subscribe(Collections.singleton(ORDERS_TOPIC));
+    }
+
+    @AfterEach
+    void tearDownKafkaConsumer() {
+        if (consumer != null) {
+            consumer.close();
+        }
+    }
+
+    @Test
+    @Description("given orders created and deleted concurrently when relayed by parallel workers then each order's events arrive in order")
+    void givenConcurrentWrites_whenRelayedInParallel_thenPerOrderOrderingPreserved() throws Exception {
+        // GIVEN
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 2);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<CompletableFuture<Void>> writers = new ArrayList<>();
+        for (int writer = 0; writer < WRITERS; writer++) {
+            String productName = "Ordering Slime " + writer;
+            writers.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < ORDERS_PER_WRITER; i++) {
+                    Long orderId = orderService.createOrder(createOrder(productName)).getId();
+                    orderService.deleteOrder(orderId);
+                }
+            }, executor));
+        }
+
+        // WHEN
+        List<CompletableFuture<Void>> relays = new ArrayList<>();
+        for (int relay = 0; relay < 2; relay++) {
+            relays.add(CompletableFuture.runAsync(() -> {
+                while (writing.get()) {
+                    outboxRelayerScheduler.processOutboxMessages();
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(writers.toArray(CompletableFuture[]::new)).get();
+        writing.set(false);
+        CompletableFuture.allOf(relays.toArray(CompletableFuture[]::new)).get();
+        outboxRelayerScheduler.processOutboxMessages();
+        executor.shutdown();
+
+        // THEN
+        assertThat(outboxMessageRepository.count()).isZero();
+        int expected = WRITERS * ORDERS_PER_WRITER * 2;
+        Map<String, List<Order.OrderStatus>> eventsByOrder = new HashMap<>();
+        int received = 0;
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (received < expected && System.nanoTime() < deadline) {
+            for (ConsumerRecord<String, byte[]> record : consumer.poll(Duration.ofMillis(500)).records(ORDERS_TOPIC)) {
+                OrderEvent event = OrderEventCodec.read(record.headers(), record.value());
+                assertThat(record.key()).isEqualTo(event.getOrderId().toString());
+                eventsByOrder.computeIfAbsent(record.key(), key -> new ArrayList<>()).add(event.getType());
+                received++;
+            }
+        }
+        assertThat(received).isEqualTo(expected);
+        assertThat(eventsByOrder).hasSize(WRITERS * ORDERS_PER_WRITER);
+        assertThat(eventsByOrder.values()).allSatisfy(events ->
+                assertThat(events).containsExactly(ORDER_CREATED, ORDER_DELETED));
+    }
+
+    private Order createOrder(String productName) {
+        Order order = new Order();
+        order.setCustomerName("Fedor");
+        order.setOrderProducts(new ArrayList<>());
+        OrderProduct orderProduct = new OrderProduct();
+        orderProduct.setProduct(new Product(null, productName, null));
+        orderProduct.setQuantity(1);
+        order.getOrderProducts().add(orderProduct);
+        return order;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.CacheConfig;
+import com.example.slimestore.config.IdempotencyProperties;
+import com.example.slimestore.config.OrderSearchProperties;
+import com.example.slimestore.config.ProductCacheProperties;
+import com.example.slimestore.jpa.IdempotencyKey;
+import com.example.slimestore.mapper.order.OrderMapperImpl;
+import com.example.slimestore.mapper.orderproduct.OrderProductMapperImpl;
+import com.example.slimestore.mapper.product.ProductMapperImpl;
+import com.example.slimestore.model.order.IdempotentOrderResult;
+import com.example.slimestore.model.order.IdempotentOrderResult.Outcome;
+import com.example.slimestore.model.order.OrderDto;
+import com.example.slimestore.model.orderproduct.OrderProductDto;
+import com.example.slimestore.model.product.ProductDto;
+import com.example.slimestore.repository.IdempotencyKeyRepository;
+import com.example.slimestore.repository.OrderRepository;
+import com.example.slimestore.repository.OutboxMessageRepository;
+import com.example.slimestore.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// tests idempotent order creation against h2 embedded db, every service call commits on its own
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Import({ IdempotentOrderService.class, OrderService.class, ProductResolver.class, OrderCache.class, CacheConfig.class,
+        OrderMapperImpl.class, OrderProductMapperImpl.class, ProductMapperImpl.class, SimpleMeterRegistry.class,
+        JacksonAutoConfiguration.class })
+@EnableConfigurationProperties({ IdempotencyProperties.class, ProductCacheProperties.class, OrderSearchProperties.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotentOrderServiceIntegrationTest {
+
+    private static final int CLIENTS = 8;
+
+    @Autowired
+    private IdempotentOrderService idempotentOrderService;
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        idempotencyKeyRepository.deleteAll();
+        outboxMessageRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @Description("given order created with key when retried with same key then stored response replayed without new order")
+    void givenCreatedOrder_whenRetried_thenReplayed() {
+        // GIVEN
+        IdempotentOrderResult created = idempotentOrderService.createOrder("retry-key", createOrderDto("Alice", "Galaxy Slime"));
+
+        // WHEN
+        IdempotentOrderResult replayed = idempotentOrderService.createOrder("retry-key", createOrderDto("Alice", "Galaxy Slime"));
+
+        // THEN
+        assertThat(created.getOutcome()).isEqualTo(Outcome.CREATED);
+        assertThat(replayed.getOutcome()).isEqualTo(Outcome.REPLAYED);
+        assertThat(replayed.getOrder()).isEqualTo(created.getOrder());
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(outboxMessageRepository.count()).isEqualTo(1);
+        assertThat(idempotencyKeyRepository.findById("retry-key")).get()
+                .extracting(IdempotencyKey::getOrderId)
+                .isEqualTo(created.getOrder().getId());
+    }
+
+    @Test
+    @Description("given new key when saved then inserted without select, and a second insert of it is rejected")
+    void givenNewKey_whenSaved_thenInsertedWithoutSelect() {
+        // GIVEN
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // WHEN
+        idempotencyKeyRepository.saveAndFlush(new IdempotencyKey("new-key", "hash", 1L, "{}", LocalDateTime.now()));
+
+        // THEN
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThatThrownBy(() -> idempotencyKeyRepository.saveAndFlush(
+                new IdempotencyKey("new-key", "other-hash", 2L, "{}", LocalDateTime.now())))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(idempotencyKeyRepository.findById("new-key")).get()
+                .extracting(IdempotencyKey::getRequestHash)
+                .isEqualTo("hash");
+    }
+
+    @Test
+    @Description("given key persisted by another instance when retried then response read from key table only")
+    void givenPersistedKey_whenRetried_thenReplayedFromKeyTable() {
+        // GIVEN
+        OrderDto orderDto = createOrderDto("Bob", "Cloud Slime");
+        idempotentOrderService.createOrder("first-key", orderDto);
+        String requestHash = idempotencyKeyRepository.findById("first-key").orElseThrow().getRequestHash();
+        idempotencyKeyRepository.save(new IdempotencyKey("other-instance-key", requestHash, 4242L,
+                "{\"id\":4242,\"customerName\":\"Bob\",\"orderProducts\":[]}", LocalDateTime.now()));
+
+        // WHEN
+        IdempotentOrderResult replayed = idempotentOrderService.createOrder("other-instance-key", orderDto);
+
+        // THEN
+        assertThat(replayed.getOutcome()).isEqualTo(Outcome.REPLAYED);
+        assertThat(replayed.getOrder().getId()).isEqualTo(4242L);
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(outboxMessageRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("given completed and unknown keys when completed order looked up then replay for known key only")
+    void givenCompletedKey_whenFindCompleted_thenReplayedWithoutCreating() {
+        // GIVEN
+        OrderDto orderDto = createOrderDto("Emma", "Mint Slime");
+        IdempotentOrderResult created = idempotentOrderService.createOrder("completed-key", orderDto);
+
+        // WHEN
+        Optional<IdempotentOrderResult> completed = idempotentOrderService.findCompleted("completed-key", orderDto);
+        Optional<IdempotentOrderResult> unknown = idempotentOrderService.findCompleted("unknown-key", orderDto);
+
+        // THEN
+        assertThat(completed).get().extracting(IdempotentOrderResult::getOutcome).isEqualTo(Outcome.REPLAYED);
+        assertThat(completed.get().getOrder()).isEqualTo(created.getOrder());
+        assertThat(unknown).isEmpty();
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("given key used for one order when reused for a different order then rejected without new order")
+    void givenUsedKey_whenReusedForDifferentOrder_thenKeyReused() {
+        // GIVEN
+        idempotentOrderService.createOrder("reused-key", createOrderDto("Clara", "Glitter Slime"));
+
+        // WHEN
+        IdempotentOrderResult reused = idempotentOrderService.createOrder("reused-key", createOrderDto("Clara", "Ocean Slime"));
+
+        // THEN
+        assertThat(reused.getOutcome()).isEqualTo(Outcome.KEY_REUSED);
+        assertThat(reused.getOrder()).isNull();
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("given concurrent requests with same key when processed then exactly one order created")
+    void givenConcurrentDuplicates_whenCreateOrder_thenSingleExecution() throws Exception {
+        // GIVEN
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<IdempotentOrderResult>> results = new ArrayList<>();
+        for (int client = 0; client < CLIENTS; client++) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return idempotentOrderService.createOrder("concurrent-key", createOrderDto("Dora", "Lava Slime"));
+            }, executor));
+        }
+
+        // WHEN
+        start.countDown();
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get();
+        executor.shutdown();
+
+        // THEN
+        List<IdempotentOrderResult> outcomes = results.stream().map(CompletableFuture::join).toList();
+        assertThat(outcomes).extracting(IdempotentOrderResult::getOutcome)
+                .containsOnlyOnce(Outcome.CREATED)
+                .containsOnly(Outcome.CREATED, Outcome.REPLAYED);
+        assertThat(outcomes).extracting(result -> result.getOrder().getId()).containsOnly(
+                outcomes.getFirst().getOrder().getId());
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(outboxMessageRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("given keys older than retention when purged then only expired keys deleted")
+    void givenExpiredKeys_whenPurge_thenDeleted() {
+        // GIVEN
+        idempotencyKeyRepository.save(new IdempotencyKey("expired-key", "hash", 1L, "{}", LocalDateTime.now().minusDays(2)));
+        idempotencyKeyRepository.save(new IdempotencyKey("recent-key", "hash", 2L, "{}", LocalDateTime.now()));
+
+        // WHEN
+        int purged = idempotentOrderService.purge();
+
+        // THEN
+        assertThat(purged).isEqualTo(1);
+        assertThat(idempotencyKeyRepository.findAll()).extracting(IdempotencyKey::getKey).containsExactly("recent-key");
+    }
+
+    private OrderDto createOrderDto(String customerName, String productName) {
+        ProductDto product = new ProductDto();
+        product.setName(productName);
+        OrderProductDto orderProduct = new OrderProductDto();
+        orderProduct.setProduct(product);
+        orderProduct.setQuantity(1);
+        OrderDto orderDto = new OrderDto();
+        orderDto.setCustomerName(customerName);
+        orderDto.setOrderProducts(List.of(orderProduct));
+        return orderDto;
+    }
+}
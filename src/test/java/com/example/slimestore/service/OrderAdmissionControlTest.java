@@ -0,0 +1,104 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.OrderAdmissionProperties;
+import com.example.slimestore.model.order.OrderAdmission;
+import com.example.slimestore.model.outbox.OutboxBacklog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class OrderAdmissionControlTest {
+
+    private final OutboxBacklogMonitor outboxBacklogMonitor = mock(OutboxBacklogMonitor.class);
+    private final OutboxRelayHealth outboxRelayHealth = new OutboxRelayHealth();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrderAdmissionProperties properties = new OrderAdmissionProperties();
+    private final OrderAdmissionControl admissionControl =
+            new OrderAdmissionControl(outboxBacklogMonitor, outboxRelayHealth, properties, meterRegistry);
+
+    @Test
+    @Description("given backlog below delay thresholds when admitted then no delay expected")
+    void givenSmallBacklog_whenAdmit_thenAdmittedRightAway() {
+        // GIVEN
+        givenBacklog(100, Duration.ofSeconds(1));
+
+        // WHEN
+        OrderAdmission admission = admissionControl.admit();
+
+        // THEN
+        assertThat(admission.isAdmitted()).isTrue();
+        assertThat(admission.getDelay()).isZero();
+        assertThat(meterRegistry.get("orders.admission").tag("decision", "admitted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("given backlog between delay and shed thresholds when decided then delay growing with backlog expected")
+    void givenGrowingBacklog_whenDecide_thenDelayGrows() {
+        // GIVEN
+        properties.setDelayBacklog(1_000);
+        properties.setShedBacklog(3_000);
+        properties.setMaxDelay(Duration.ofMillis(400));
+
+        // WHEN
+        givenBacklog(1_500, Duration.ZERO);
+        OrderAdmission lowPressure = admissionControl.decide();
+        givenBacklog(2_500, Duration.ZERO);
+        OrderAdmission highPressure = admissionControl.decide();
+
+        // THEN
+        assertThat(lowPressure.isAdmitted()).isTrue();
+        assertThat(lowPressure.getDelay()).isEqualTo(Duration.ofMillis(100));
+        assertThat(highPressure.isAdmitted()).isTrue();
+        assertThat(highPressure.getDelay()).isEqualTo(Duration.ofMillis(300));
+    }
+
+    @Test
+    @Description("given backlog past shed size or age when admitted then rejected with retry after expected")
+    void givenBacklogPastShedThresholds_whenAdmit_thenRejected() {
+        // GIVEN
+        properties.setRetryAfter(Duration.ofSeconds(7));
+
+        // WHEN
+        givenBacklog(properties.getShedBacklog(), Duration.ZERO);
+        OrderAdmission tooLarge = admissionControl.admit();
+        givenBacklog(1, properties.getShedAge().plusSeconds(1));
+        OrderAdmission tooOld = admissionControl.admit();
+
+        // THEN
+        assertThat(tooLarge.isAdmitted()).isFalse();
+        assertThat(tooLarge.getDelay()).isEqualTo(Duration.ofSeconds(7));
+        assertThat(tooOld.isAdmitted()).isFalse();
+        assertThat(meterRegistry.get("orders.admission").tag("decision", "rejected").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @Description("given relay failing repeatedly when decided then longest delay expected, none once disabled")
+    void givenFailingRelay_whenDecide_thenLongestDelay() {
+        // GIVEN
+        givenBacklog(10, Duration.ZERO);
+        for (int batch = 0; batch < properties.getRelayFailureThreshold(); batch++) {
+            outboxRelayHealth.recordBatch(10, 0);
+        }
+
+        // WHEN
+        OrderAdmission failing = admissionControl.decide();
+        properties.setEnabled(false);
+        OrderAdmission disabled = admissionControl.decide();
+
+        // THEN
+        assertThat(failing.isAdmitted()).isTrue();
+        assertThat(failing.getDelay()).isEqualTo(properties.getMaxDelay());
+        assertThat(disabled.getDelay()).isZero();
+    }
+
+    private void givenBacklog(long size, Duration oldestAge) {
+        LocalDateTime oldestCreatedAt = size == 0 ? null : LocalDateTime.now().minus(oldestAge);
+        when(outboxBacklogMonitor.currentBacklog()).thenReturn(new OutboxBacklog(size, oldestCreatedAt));
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.CacheConfig;
+import com.example.slimestore.config.OrderBatchProperties;
+import com.example.slimestore.config.ProductCacheProperties;
+import com.example.slimestore.mapper.order.OrderMapperImpl;
+import com.example.slimestore.mapper.orderproduct.OrderProductMapperImpl;
+import com.example.slimestore.mapper.product.ProductMapperImpl;
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.OutboxMessage;
+import com.example.slimestore.model.order.OrderBatchItemResultDto;
+import com.example.slimestore.model.order.OrderDeleteCriteria;
+import com.example.slimestore.model.order.OrderDto;
+import com.example.slimestore.model.order.OrderLineRow;
+import com.example.slimestore.model.orderproduct.OrderProductDto;
+import com.example.slimestore.model.product.ProductDto;
+import com.example.slimestore.repository.OrderRepository;
+import com.example.slimestore.repository.OutboxMessageRepository;
+import com.example.slimestore.repository.ProductRepository;
+import com.example.slimestore.util.OrderUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.slimestore.model.order.OrderBatchItemResultDto.Status.CREATED;
+import static com.example.slimestore.model.order.OrderBatchItemResultDto.Status.FAILED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// tests chunked batch order creation against h2 embedded db, every chunk commits on its own
+@DataJpaTest(properties = { "app.orders.batch.chunk-size=2", "app.orders.batch.delete-chunk-size=2" })
+@Import({ OrderBatchService.class, ProductResolver.class, OrderCache.class, CacheConfig.class,
+        OrderMapperImpl.class, OrderProductMapperImpl.class, ProductMapperImpl.class })
+@EnableConfigurationProperties({ OrderBatchProperties.class, ProductCacheProperties.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderBatchServiceIntegrationTest {
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void cleanUp() {
+        outboxMessageRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @Description("given batch of valid orders when created then every order and outbox message is saved")
+    void givenValidOrders_whenCreateOrders_thenAllCreated() {
+        // GIVEN
+        List<OrderDto> orderDtos = List.of(
+                createOrderDto("Alice", "Galaxy Slime"),
+                createOrderDto("Bob", "Cloud Slime"),
+                createOrderDto("Charlie", "Galaxy Slime"));
+
+        // WHEN
+        List<OrderBatchItemResultDto> results = orderBatchService.createOrders(orderDtos);
+
+        // THEN
+        assertThat(results).extracting(OrderBatchItemResultDto::getStatus).containsOnly(CREATED);
+        assertThat(results).extracting(OrderBatchItemResultDto::getOrderId).doesNotContainNull();
+        assertThat(orderRepository.count()).isEqualTo(3);
+        assertThat(outboxMessageRepository.count()).isEqualTo(3);
+        assertThat(productRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @Description("given batch with invalid and unpersistable orders when created then only those orders fail")
+    void givenBadOrders_whenCreateOrders_thenOtherOrdersOfChunkAreCreated() {
+        // GIVEN
+        OrderDto missingCustomer = createOrderDto(null, "Galaxy Slime");
+        OrderDto unknownProductId = createOrderDto("Bob", null);
+        unknownProductId.getOrderProducts().getFirst().getProduct().setId(424242L);
+        OrderDto tooLongProductName = createOrderDto("Erin", "Slime".repeat(60));
+        List<OrderDto> orderDtos = List.of(
+                createOrderDto("Alice", "Galaxy Slime"),
+                missingCustomer,
+                unknownProductId,
+                createOrderDto("Dave", "Cloud Slime"),
+                tooLongProductName);
+
+        // WHEN
+        List<OrderBatchItemResultDto> results = orderBatchService.createOrders(orderDtos);
+
+        // THEN
+        assertThat(results).extracting(OrderBatchItemResultDto::getStatus)
+                .containsExactly(CREATED, FAILED, FAILED, CREATED, FAILED);
+        assertThat(results.get(1).getError()).isEqualTo("Customer name is required");
+        assertThat(results.get(2).getError()).isEqualTo("Unknown product id 424242");
+        assertThat(results.get(4).getError()).isEqualTo("Order violates a database constraint, e.g. a value is too long");
+        assertThat(orderRepository.count()).isEqualTo(2);
+        assertThat(outboxMessageRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @Description("given orders of several customers when bulk deleted by customer then only that customer's orders are deleted")
+    void givenOrdersOfCustomers_whenDeleteByCustomer_thenOnlyTheirOrdersDeleted() {
+        // GIVEN
+        List<Long> ids = createOrders("Alice", "Bob", "Alice", "Alice", "Alice", "Charlie");
+        outboxMessageRepository.deleteAll();
+
+        // WHEN
+        int deleted = orderBatchService.deleteOrders(OrderDeleteCriteria.byCustomerName("Alice"));
+
+        // THEN
+        assertThat(deleted).isEqualTo(4);
+        assertThat(orderRepository.findAll()).extracting(Order::getCustomerName)
+                .containsExactlyInAnyOrder("Bob", "Charlie");
+        assertThat(outboxMessageRepository.findAll()).extracting(OutboxMessage::getPayload)
+                .containsExactlyInAnyOrder(
+                        deletedMessage(ids.get(0)), deletedMessage(ids.get(2)),
+                        deletedMessage(ids.get(3)), deletedMessage(ids.get(4)));
+    }
+
+    @Test
+    @Description("given orders when bulk deleted by id range then the orders and their order products are deleted")
+    void givenOrders_whenDeleteByIdRange_thenOrdersAndOrderProductsDeleted() {
+        // GIVEN
+        List<Long> ids = createOrders("Alice", "Bob", "Charlie", "Dave", "Eve");
+
+        // WHEN
+        int deleted = orderBatchService.deleteOrders(OrderDeleteCriteria.byIdRange(ids.get(1), ids.get(3)));
+
+        // THEN
+        assertThat(deleted).isEqualTo(3);
+        assertThat(orderRepository.findAll()).extracting(Order::getId)
+                .containsExactlyInAnyOrder(ids.get(0), ids.get(4));
+        assertThat(orderRepository.findOrderRowsByIdIn(List.of(ids.get(0), ids.get(4))))
+                .extracting(OrderLineRow::getOrderId, row -> row.getOrderProductId() != null)
+                .containsExactly(tuple(ids.get(0), true), tuple(ids.get(4), true));
+    }
+
+    @Test
+    @Description("given ids of existing and missing orders when bulk deleted by ids then only existing orders are announced")
+    void givenExistingAndMissingIds_whenDeleteByIds_thenExistingOrdersDeleted() {
+        // GIVEN
+        List<Long> ids = createOrders("Alice", "Bob", "Charlie");
+        outboxMessageRepository.deleteAll();
+
+        // WHEN
+        int deleted = orderBatchService.deleteOrders(
+                OrderDeleteCriteria.byIds(List.of(ids.get(2), 424242L, ids.get(0), ids.get(0))));
+
+        // THEN
+        assertThat(deleted).isEqualTo(2);
+        assertThat(orderRepository.findAll()).extracting(Order::getId).containsExactly(ids.get(1));
+        assertThat(outboxMessageRepository.count()).isEqualTo(2);
+    }
+
+    private List<Long> createOrders(String... customerNames) {
+        List<OrderDto> orderDtos = Arrays.stream(customerNames)
+                .map(customerName -> createOrderDto(customerName, "Galaxy Slime"))
+                .toList();
+        return orderBatchService.createOrders(orderDtos).stream()
+                .map(OrderBatchItemResultDto::getOrderId)
+                .toList();
+    }
+
+    private String deletedMessage(Long orderId) {
+        return OrderUtil.buildOrderStatusMessage(Order.OrderStatus.ORDER_DELETED, orderId);
+    }
+
+    private OrderDto createOrderDto(String customerName, String productName) {
+        ProductDto product = new ProductDto();
+        product.setName(productName);
+        OrderProductDto orderProduct = new OrderProductDto();
+        orderProduct.setProduct(product);
+        orderProduct.setQuantity(1);
+        OrderDto orderDto = new OrderDto();
+        orderDto.setCustomerName(customerName);
+        orderDto.setOrderProducts(List.of(orderProduct));
+        return orderDto;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.CacheConfig;
+import com.example.slimestore.config.OrderSearchProperties;
+import com.example.slimestore.config.ProductCacheProperties;
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.jpa.Product;
+import com.example.slimestore.listener.OrderCacheInvalidationListener;
+import com.example.slimestore.mapper.order.OrderMapperImpl;
+import com.example.slimestore.mapper.orderproduct.OrderProductMapperImpl;
+import com.example.slimestore.mapper.product.ProductMapperImpl;
+import com.example.slimestore.model.order.OrderDto;
+import com.example.slimestore.repository.OrderRepository;
+import com.example.slimestore.repository.OutboxMessageRepository;
+import com.example.slimestore.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Optional;
+
+import static com.example.slimestore.jpa.Order.OrderStatus.ORDER_DELETED;
+import static com.example.slimestore.util.OrderUtil.buildOrderStatusMessage;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// tests the read-through order cache against h2 embedded db, every service call commits on its own
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Import({ OrderService.class, ProductResolver.class, OrderCache.class, CacheConfig.class,
+        OrderMapperImpl.class, OrderProductMapperImpl.class, ProductMapperImpl.class, SimpleMeterRegistry.class })
+@EnableConfigurationProperties({ ProductCacheProperties.class, OrderSearchProperties.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderCacheIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderCache orderCache;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        outboxMessageRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @Description("given cached order when read again then no statement reaches the database")
+    void givenCachedOrder_whenGetOrderById_thenServedFromCache() {
+        // GIVEN
+        Long orderId = orderService.createOrder(createOrder("Alice", "Galaxy Slime")).getId();
+        Optional<OrderDto> firstRead = orderService.getOrderById(orderId);
+        statistics.clear();
+
+        // WHEN
+        Optional<OrderDto> secondRead = orderService.getOrderById(orderId);
+
+        // THEN
+        assertThat(firstRead).isPresent();
+        assertThat(secondRead).isEqualTo(firstRead);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @Description("given cached order when deleted then the next read misses the cache")
+    void givenCachedOrder_whenDeleteOrder_thenEvicted() {
+        // GIVEN
+        Long orderId = orderService.createOrder(createOrder("Bob", "Cloud Slime")).getId();
+        assertThat(orderService.getOrderById(orderId)).isPresent();
+
+        // WHEN
+        orderService.deleteOrder(orderId);
+
+        // THEN
+        assertThat(orderService.getOrderById(orderId)).isEmpty();
+    }
+
+    @Test
+    @Description("given cached order when deletion event consumed then the cached order is evicted")
+    void givenCachedOrder_whenDeletionEventConsumed_thenEvicted() {
+        // GIVEN
+        Long orderId = orderService.createOrder(createOrder("Charlie", "Glitter Slime")).getId();
+        assertThat(orderService.getOrderById(orderId)).isPresent();
+        OrderCacheInvalidationListener listener = new OrderCacheInvalidationListener(orderCache);
+        statistics.clear();
+
+        // WHEN
+        listener.onOrderEvent(new ConsumerRecord<>("orders", 0, 0L, orderId.toString(),
+                buildOrderStatusMessage(ORDER_DELETED, orderId).getBytes(StandardCharsets.UTF_8)));
+        orderService.getOrderById(orderId);
+
+        // THEN
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+    }
+
+    private Order createOrder(String customerName, String productName) {
+        Order order = new Order();
+        order.setCustomerName(customerName);
+        order.setOrderProducts(new ArrayList<>());
+        OrderProduct orderProduct = new OrderProduct();
+        orderProduct.setProduct(new Product(null, productName, null));
+        orderProduct.setQuantity(1);
+        order.getOrderProducts().add(orderProduct);
+        return order;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.jpa.Product;
+import com.example.slimestore.listener.OrderReadModelListener;
+import com.example.slimestore.model.order.OrderStatusDto;
+import com.example.slimestore.repository.OutboxMessageRepository;
+import com.example.slimestore.scheduler.OutboxRelayerScheduler;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import static com.example.slimestore.service.OrderService.ORDER_TOPIC;
+import static com.example.slimestore.util.OrderUtil.buildOrderStatusMessage;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// tests the read model fed from the orders topic, against h2 embedded db and embedded kafka
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "app.outbox.event-format=binary",
+        "app.orders.read-model.enabled=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true" })
+@EmbeddedKafka(partitions = 2, topics = "orders")
+class OrderReadModelIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderReadModel orderReadModel;
+    @Autowired
+    private OutboxRelayerScheduler outboxRelayerScheduler;
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    @Autowired
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+    @Autowired
+    private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @Description("given relayed order events when read model caught up then statuses and counts served without the database")
+    void givenRelayedEvents_whenCaughtUp_thenServedFromReadModel() throws Exception {
+        // GIVEN
+        Long first = orderService.createOrder(createOrder("Read Model Anna")).getId();
+        Long second = orderService.createOrder(createOrder("Read Model Anna")).getId();
+        Long third = orderService.createOrder(createOrder("Read Model Boris")).getId();
+        orderService.deleteOrder(second);
+        outboxRelayerScheduler.processOutboxMessages();
+        await(() -> orderReadModel.isCaughtUp() && orderReadModel.countOrders("Read Model Anna") == 1
+                && orderReadModel.findStatus(third).isPresent());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // WHEN
+        Optional<OrderStatusDto> firstStatus = orderService.getOrderStatus(first);
+        long annaOrders = orderService.countOrdersByCustomer("Read Model Anna");
+        long borisOrders = orderService.countOrdersByCustomer("Read Model Boris");
+
+        // THEN
+        assertThat(firstStatus).contains(new OrderStatusDto(first, "Read Model Anna", Order.OrderStatus.ORDER_CREATED));
+        assertThat(annaOrders).isEqualTo(1);
+        assertThat(borisOrders).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(orderService.getOrderStatus(second)).isEmpty();
+    }
+
+    @Test
+    @Description("given populated read model when consumer restarted then the topic is replayed into the same view")
+    void givenPopulatedReadModel_whenConsumerRestarted_thenRebuiltFromTopic() throws Exception {
+        // GIVEN
+        Long orderId = orderService.createOrder(createOrder("Read Model Clara")).getId();
+        outboxRelayerScheduler.processOutboxMessages();
+        await(() -> orderReadModel.findStatus(orderId).isPresent());
+        MessageListenerContainer container = kafkaListenerEndpointRegistry
+                .getListenerContainer(OrderReadModelListener.LISTENER_ID);
+
+        // WHEN
+        container.stop();
+        orderReadModel.reset();
+        container.start();
+        await(orderReadModel::isCaughtUp);
+
+        // THEN
+        assertThat(orderReadModel.findStatus(orderId)).isPresent();
+        assertThat(orderReadModel.countOrders("Read Model Clara")).isEqualTo(1);
+    }
+
+    @Test
+    @Description("given creation replayed without customer when orders of the customer counted then counted from the database")
+    void givenCreationWithoutCustomer_whenCountOrdersByCustomer_thenCountedFromDatabase() throws Exception {
+        // GIVEN
+        orderService.createOrder(createOrder("Read Model Dora"));
+        outboxRelayerScheduler.processOutboxMessages();
+        Long stringEventOrderId = orderService.createOrder(createOrder("Read Model Dora")).getId();
+        outboxMessageRepository.deleteAll();
+        kafkaTemplate.send(ORDER_TOPIC, stringEventOrderId.toString(),
+                buildOrderStatusMessage(Order.OrderStatus.ORDER_CREATED, stringEventOrderId)
+                        .getBytes(StandardCharsets.UTF_8)).get();
+        await(() -> orderReadModel.isCaughtUp() && orderReadModel.findStatus(stringEventOrderId).isPresent()
+                && orderReadModel.countOrders("Read Model Dora") == 1);
+
+        // WHEN
+        long doraOrders = orderService.countOrdersByCustomer("Read Model Dora");
+
+        // THEN
+        assertThat(doraOrders).isEqualTo(2);
+        assertThat(orderReadModel.hasCompleteCustomerCounts()).isFalse();
+        orderService.deleteOrder(stringEventOrderId);
+        outboxRelayerScheduler.processOutboxMessages();
+        await(() -> orderReadModel.findStatus(stringEventOrderId).isEmpty());
+        assertThat(orderReadModel.hasCompleteCustomerCounts()).isTrue();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private Order createOrder(String customerName) {
+        Order order = new Order();
+        order.setCustomerName(customerName);
+        order.setOrderProducts(new ArrayList<>());
+        OrderProduct orderProduct = new OrderProduct();
+        orderProduct.setProduct(new Product(null, "Galaxy Slime", null));
+        orderProduct.setQuantity(1);
+        order.getOrderProducts().add(orderProduct);
+        return order;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.CacheConfig;
+import com.example.slimestore.config.OrderSearchProperties;
+import com.example.slimestore.config.ProductCacheProperties;
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.jpa.Product;
+import com.example.slimestore.mapper.order.OrderMapperImpl;
+import com.example.slimestore.mapper.orderproduct.OrderProductMapperImpl;
+import com.example.slimestore.mapper.product.ProductMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// tests that order creation reaches h2 embedded db in jdbc batches
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ OrderService.class, ProductResolver.class, OrderCache.class, CacheConfig.class,
+        OrderMapperImpl.class, OrderProductMapperImpl.class, ProductMapperImpl.class, SimpleMeterRegistry.class })
+@EnableConfigurationProperties({ ProductCacheProperties.class, OrderSearchProperties.class })
+class OrderServiceBatchInsertIntegrationTest {
+
+    private static final int ORDER_LINES = 50;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setupStatistics() {
+        statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @Description("given order with fifty new products when create order then rows are inserted in a handful of statements")
+    void givenOrderWithFiftyLines_whenCreateOrder_thenInsertsAreBatched() {
+        // GIVEN
+        Order order = new Order();
+        order.setCustomerName("Bulk Buyer");
+        List<OrderProduct> orderProducts = new ArrayList<>();
+        for (int i = 0; i < ORDER_LINES; i++) {
+            orderProducts.add(createOrderProduct("Batch Slime " + i, i + 1));
+        }
+        order.setOrderProducts(orderProducts);
+
+        // WHEN
+        orderService.createOrder(order);
+        entityManager.flush();
+
+        // THEN
+        // 50 products + 1 order + 50 order products + 1 outbox message
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(2L * ORDER_LINES + 2);
+        // one catalog lookup, one batched insert per table and at most two calls per sequence
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(13);
+    }
+
+    private OrderProduct createOrderProduct(String productName, int quantity) {
+        Product product = new Product();
+        product.setName(productName);
+        OrderProduct item = new OrderProduct();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
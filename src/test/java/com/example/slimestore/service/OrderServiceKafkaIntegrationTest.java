@@ -1,15 +1,23 @@
 package com.example.slimestore.service;
 
+import com.example.slimestore.config.CacheConfig;
+import com.example.slimestore.config.OrderSearchProperties;
+import com.example.slimestore.config.ProductCacheProperties;
 import com.example.slimestore.jpa.Order;
 import com.example.slimestore.jpa.OutboxMessage;
 import com.example.slimestore.jpa.OrderProduct;
 import com.example.slimestore.jpa.Product;
+import com.example.slimestore.mapper.order.OrderMapperImpl;
+import com.example.slimestore.mapper.orderproduct.OrderProductMapperImpl;
+import com.example.slimestore.mapper.product.ProductMapperImpl;
 import com.example.slimestore.repository.OrderRepository;
 import com.example.slimestore.repository.OutboxMessageRepository;
 import com.example.slimestore.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Description;
 import org.springframework.context.annotation.Import;
@@ -26,7 +34,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @DataJpaTest
-@Import(OrderService.class)
+@Import({ OrderService.class, ProductResolver.class, OrderCache.class, CacheConfig.class,
+        OrderMapperImpl.class, OrderProductMapperImpl.class, ProductMapperImpl.class, SimpleMeterRegistry.class })
+@EnableConfigurationProperties({ ProductCacheProperties.class, OrderSearchProperties.class })
 @Transactional
 class OrderServiceKafkaIntegrationTest {
 
@@ -0,0 +1,152 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.ProductCacheProperties;
+import com.example.slimestore.config.ProductSearchProperties;
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.jpa.Product;
+import com.example.slimestore.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.util.List;
+
+import static com.example.slimestore.service.ProductNameIndex.MatchMode.EXACT;
+import static com.example.slimestore.service.ProductNameIndex.MatchMode.FUZZY;
+import static com.example.slimestore.service.ProductNameIndex.MatchMode.PREFIX;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// tests the product name index loaded from h2 embedded db
+@DataJpaTest
+@Import({ ProductNameIndex.class, ProductResolver.class })
+@EnableConfigurationProperties({ ProductSearchProperties.class, ProductCacheProperties.class })
+class ProductNameIndexIntegrationTest {
+
+    @Autowired
+    private ProductNameIndex productNameIndex;
+    @Autowired
+    private ProductResolver productResolver;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.saveAll(List.of(
+                new Product(null, "Galaxy Slime", null),
+                new Product(null, "Galaxy Glitter Slime", null),
+                new Product(null, "Cloud Slime", null),
+                new Product(null, "Butter Slime", null)));
+        productNameIndex.reload();
+    }
+
+    @Test
+    @Description("given indexed products when searched by prefix then names starting with it are found, ignoring case")
+    void givenIndexedProducts_whenSearchByPrefix_thenMatchingNamesFound() {
+        // WHEN
+        List<Product> products = productNameIndex.search("galaxy", PREFIX, 10);
+
+        // THEN
+        assertThat(products).extracting(Product::getName)
+                .containsExactly("Galaxy Glitter Slime", "Galaxy Slime");
+        assertThat(products).extracting(Product::getId).doesNotContainNull();
+    }
+
+    @Test
+    @Description("given indexed products when searched with typos then the closest names are found first")
+    void givenIndexedProducts_whenSearchWithTypos_thenClosestNamesFound() {
+        // WHEN
+        List<Product> fullName = productNameIndex.search("Galxy Slme", FUZZY, 10);
+        List<Product> prefix = productNameIndex.search("Clod", FUZZY, 10);
+
+        // THEN
+        assertThat(fullName).extracting(Product::getName).first().isEqualTo("Galaxy Slime");
+        assertThat(fullName).extracting(Product::getName).doesNotContain("Cloud Slime", "Butter Slime");
+        assertThat(prefix).extracting(Product::getName).containsExactly("Cloud Slime");
+    }
+
+    @Test
+    @Description("given indexed products when searched by exact name then only that product is found")
+    void givenIndexedProducts_whenSearchExact_thenOnlyThatProductFound() {
+        // WHEN
+        List<Product> products = productNameIndex.search("cloud slime", EXACT, 10);
+
+        // THEN
+        assertThat(products).extracting(Product::getName).containsExactly("Cloud Slime");
+        assertThat(productNameIndex.search("cloud", EXACT, 10)).isEmpty();
+    }
+
+    @Test
+    @Description("given product created by an order when the order commits then the product is indexed")
+    void givenProductCreatedByOrder_whenCommitted_thenIndexed() {
+        // GIVEN
+        OrderProduct orderProduct = new OrderProduct();
+        orderProduct.setProduct(new Product(null, "Crunchy Slime", null));
+        orderProduct.setQuantity(1);
+        productResolver.resolveProducts(List.of(orderProduct));
+        assertThat(productNameIndex.search("crunchy", PREFIX, 10)).isEmpty();
+
+        // WHEN
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        // THEN
+        assertThat(productNameIndex.search("crunchy", PREFIX, 10)).extracting(Product::getId)
+                .containsExactly(orderProduct.getProduct().getId());
+        TestTransaction.start();
+        productRepository.deleteAll();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+    }
+
+    @Test
+    @Description("given product inserted around the application when index reloaded then the product is found")
+    void givenProductInsertedDirectly_whenReloaded_thenIndexed() {
+        // GIVEN
+        Product inserted = productRepository.save(new Product(null, "Sparkle Slime", null));
+        assertThat(productNameIndex.search("sparkle", PREFIX, 10)).isEmpty();
+
+        // WHEN
+        productNameIndex.reload();
+
+        // THEN
+        assertThat(productNameIndex.search("sparkle", PREFIX, 10)).extracting(Product::getId)
+                .containsExactly(inserted.getId());
+    }
+
+    @Test
+    @Description("given product created while the catalog is read when reload finishes then the product stays indexed")
+    void givenProductCreatedDuringReload_whenReloaded_thenKept() {
+        // GIVEN
+        ProductRepository catalog = mock(ProductRepository.class);
+        ProductNameIndex index = new ProductNameIndex(catalog, new ProductSearchProperties());
+        when(catalog.findAll()).thenAnswer(invocation -> {
+            // committed after the catalog snapshot was taken
+            index.onProductCreated(new ProductCreatedEvent(42L, "Sparkle Slime"));
+            return List.of(new Product(1L, "Cloud Slime", null));
+        });
+
+        // WHEN
+        index.reload();
+
+        // THEN
+        assertThat(index.search("sparkle", PREFIX, 10)).extracting(Product::getId).containsExactly(42L);
+        assertThat(index.search("cloud", PREFIX, 10)).extracting(Product::getId).containsExactly(1L);
+    }
+
+    @Test
+    @Description("given a query and a name when prefix edit distance computed then typos up to the bound are counted")
+    void givenQueryAndName_whenPrefixEditDistance_thenTyposCounted() {
+        // THEN
+        assertThat(ProductNameIndex.prefixEditDistance("galaxy", "galaxy slime", 2)).isZero();
+        assertThat(ProductNameIndex.prefixEditDistance("galxy", "galaxy slime", 2)).isEqualTo(1);
+        assertThat(ProductNameIndex.prefixEditDistance("glaxy slme", "galaxy slime", 2)).isEqualTo(2);
+        assertThat(ProductNameIndex.prefixEditDistance("butter", "galaxy slime", 2)).isGreaterThan(2);
+    }
+}
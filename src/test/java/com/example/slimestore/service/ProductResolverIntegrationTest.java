@@ -0,0 +1,101 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.ProductCacheProperties;
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.jpa.Product;
+import com.example.slimestore.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// tests product resolution against h2 embedded db
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(ProductResolver.class)
+@EnableConfigurationProperties(ProductCacheProperties.class)
+class ProductResolverIntegrationTest {
+
+    @Autowired
+    private ProductResolver productResolver;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setupStatistics() {
+        statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @Description("given order lines with the same new product when resolved then one product is created and shared")
+    void givenDuplicateProducts_whenResolve_thenSingleProductCreated() {
+        // GIVEN
+        List<OrderProduct> orderProducts = List.of(
+                createOrderProduct("Lava Slime"),
+                createOrderProduct("Lava Slime"),
+                createOrderProduct("Crunchy Slime"));
+
+        // WHEN
+        productResolver.resolveProducts(orderProducts);
+        entityManager.flush();
+
+        // THEN
+        assertThat(orderProducts.get(0).getProduct()).isSameAs(orderProducts.get(1).getProduct());
+        assertThat(orderProducts.get(0).getProduct().getId()).isNotNull();
+        assertThat(productRepository.findAll()).hasSize(2);
+    }
+
+    @Test
+    @Description("given product resolved in a committed order when resolved again then the catalog is not read")
+    void givenRecentlyResolvedProduct_whenResolveAgain_thenNoCatalogRead() {
+        // GIVEN
+        productRepository.save(new Product(null, "Galaxy Slime", null));
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        TestTransaction.start();
+        productResolver.resolveProducts(List.of(createOrderProduct("Galaxy Slime")));
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        TestTransaction.start();
+        statistics.clear();
+
+        // WHEN
+        OrderProduct orderProduct = createOrderProduct("Galaxy Slime");
+        productResolver.resolveProducts(List.of(orderProduct));
+
+        // THEN
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(orderProduct.getProduct().getId()).isNotNull();
+        assertThat(orderProduct.getProduct().getName()).isEqualTo("Galaxy Slime");
+
+        productRepository.deleteAll();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+    }
+
+    private OrderProduct createOrderProduct(String productName) {
+        Product product = new Product();
+        product.setName(productName);
+        OrderProduct item = new OrderProduct();
+        item.setProduct(product);
+        item.setQuantity(1);
+        return item;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.CacheConfig;
+import com.example.slimestore.config.OrderSearchProperties;
+import com.example.slimestore.config.ProductCacheProperties;
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.jpa.Product;
+import com.example.slimestore.mapper.order.OrderMapperImpl;
+import com.example.slimestore.mapper.orderproduct.OrderProductMapperImpl;
+import com.example.slimestore.mapper.product.ProductMapperImpl;
+import com.example.slimestore.model.product.ProductSalesDto;
+import com.example.slimestore.repository.OrderRepository;
+import com.example.slimestore.repository.OutboxMessageRepository;
+import com.example.slimestore.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// tests the product sales counters against h2 embedded db, every service call commits on its own
+@DataJpaTest
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Import({ OrderService.class, ProductResolver.class, OrderCache.class, CacheConfig.class, ProductSalesCounters.class,
+        OrderMapperImpl.class, OrderProductMapperImpl.class, ProductMapperImpl.class, SimpleMeterRegistry.class })
+@EnableConfigurationProperties({ ProductCacheProperties.class, OrderSearchProperties.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductSalesCountersIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ProductSalesCounters productSalesCounters;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productSalesCounters.reconcile();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        outboxMessageRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @Description("given orders created and deleted when top selling requested then committed quantities expected")
+    void givenOrdersCreatedAndDeleted_whenTopSelling_thenCountersFollowCommits() {
+        // GIVEN
+        orderService.createOrder(createOrder("Alice", "Galaxy Slime", 3, "Cloud Slime", 1));
+        Long deleted = orderService.createOrder(createOrder("Bob", "Cloud Slime", 5, "Glitter Slime", 2)).getId();
+        orderService.createOrder(createOrder("Clara", "Glitter Slime", 4));
+        orderService.deleteOrder(deleted);
+
+        // WHEN
+        List<ProductSalesDto> top = productSalesCounters.topSelling(2);
+
+        // THEN
+        assertThat(top)
+                .extracting(ProductSalesDto::getProductName, ProductSalesDto::getQuantity)
+                .containsExactly(tuple("Glitter Slime", 4L), tuple("Galaxy Slime", 3L));
+        productSalesCounters.reconcile();
+        assertThat(productSalesCounters.topSelling(10))
+                .extracting(ProductSalesDto::getProductName, ProductSalesDto::getQuantity)
+                .containsExactly(tuple("Glitter Slime", 4L), tuple("Galaxy Slime", 3L), tuple("Cloud Slime", 1L));
+    }
+
+    @Test
+    @Description("given drifted counters when reconciled then the aggregate over the order products wins")
+    void givenDriftedCounters_whenReconcile_thenCorrected() {
+        // GIVEN
+        Order order = orderService.createOrder(createOrder("Dora", "Ocean Slime", 2));
+        Product product = order.getOrderProducts().getFirst().getProduct();
+        productSalesCounters.onProductSalesChanged(new ProductSalesChangedEvent(List.of(
+                new ProductSalesDto(product.getId(), product.getName(), 7),
+                new ProductSalesDto(-1L, "Phantom Slime", 9))));
+
+        // WHEN
+        productSalesCounters.reconcile();
+
+        // THEN
+        assertThat(productSalesCounters.topSelling(10))
+                .extracting(ProductSalesDto::getProductId, ProductSalesDto::getQuantity)
+                .containsExactly(tuple(product.getId(), 2L));
+    }
+
+    private Order createOrder(String customerName, Object... productsAndQuantities) {
+        Order order = new Order();
+        order.setCustomerName(customerName);
+        order.setOrderProducts(new ArrayList<>());
+        for (int i = 0; i < productsAndQuantities.length; i += 2) {
+            OrderProduct orderProduct = new OrderProduct();
+            orderProduct.setProduct(new Product(null, (String) productsAndQuantities[i], null));
+            orderProduct.setQuantity((Integer) productsAndQuantities[i + 1]);
+            order.getOrderProducts().add(orderProduct);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.CacheConfig;
+import com.example.slimestore.config.OrderSearchProperties;
+import com.example.slimestore.config.ProductCacheProperties;
+import com.example.slimestore.config.SecondLevelCacheConfig;
+import com.example.slimestore.config.SecondLevelCacheProperties;
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.jpa.Product;
+import com.example.slimestore.mapper.order.OrderMapperImpl;
+import com.example.slimestore.mapper.orderproduct.OrderProductMapperImpl;
+import com.example.slimestore.mapper.product.ProductMapperImpl;
+import com.example.slimestore.repository.OrderRepository;
+import com.example.slimestore.repository.OutboxMessageRepository;
+import com.example.slimestore.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// tests the second-level cache of the product catalog against h2 embedded db, every call commits on its own
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Import({ OrderService.class, ProductResolver.class, OrderCache.class, CacheConfig.class, SecondLevelCacheConfig.class,
+        OrderMapperImpl.class, OrderProductMapperImpl.class, ProductMapperImpl.class, SimpleMeterRegistry.class })
+@EnableConfigurationProperties({ ProductCacheProperties.class, OrderSearchProperties.class, SecondLevelCacheProperties.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductSecondLevelCacheIntegrationTest {
+
+    private static final String PRODUCT_ENTITY = Product.class.getName();
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        outboxMessageRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @Description("given products created with one order when ordered again by id then they come from the second-level cache")
+    void givenCachedProducts_whenOrderedById_thenNoProductSelects() {
+        // GIVEN
+        Order first = orderService.createOrder(createOrder("Alice", "Galaxy Slime", "Cloud Slime"));
+        List<Long> productIds = first.getOrderProducts().stream()
+                .map(orderProduct -> orderProduct.getProduct().getId())
+                .toList();
+        statistics.clear();
+
+        // WHEN
+        Order second = orderService.createOrder(createOrderByIds("Alice", productIds));
+
+        // THEN
+        assertThat(second.getOrderProducts())
+                .extracting(orderProduct -> orderProduct.getProduct().getName())
+                .containsExactlyInAnyOrder("Galaxy Slime", "Cloud Slime");
+        assertThat(statistics.getEntityStatistics(PRODUCT_ENTITY).getLoadCount()).isZero();
+        assertThat(statistics.getEntityStatistics(PRODUCT_ENTITY).getCacheHitCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", PRODUCT_ENTITY).tag("result", "hit")
+                .functionCounter().count()).isPositive();
+    }
+
+    @Test
+    @Description("given cached product when renamed then the next read sees the new name")
+    void givenCachedProduct_whenRenamed_thenCacheUpdated() {
+        // GIVEN
+        orderService.createOrder(createOrder("Bob", "Glitter Slime"));
+        Product product = productRepository.findByName("Glitter Slime").orElseThrow();
+        product.setName("Sparkle Slime");
+
+        // WHEN
+        productRepository.save(product);
+
+        // THEN
+        statistics.clear();
+        assertThat(productRepository.findById(product.getId())).map(Product::getName).contains("Sparkle Slime");
+        assertThat(statistics.getEntityStatistics(PRODUCT_ENTITY).getLoadCount()).isZero();
+        assertThat(productRepository.findByName("Glitter Slime")).isEmpty();
+    }
+
+    @Test
+    @Description("given cached product query when repeated then served from the query cache until products are written")
+    void givenCachedProductQuery_whenRepeated_thenServedFromQueryCache() {
+        // GIVEN
+        productRepository.save(new Product(null, "Ocean Slime", null));
+        assertThat(productRepository.findByNameInOrderByIdAsc(List.of("Lava Slime"))).isEmpty();
+        statistics.clear();
+
+        // WHEN
+        List<Product> cached = productRepository.findByNameInOrderByIdAsc(List.of("Lava Slime"));
+        long statementsWhenCached = statistics.getPrepareStatementCount();
+        productRepository.save(new Product(null, "Lava Slime", null));
+        List<Product> afterWrite = productRepository.findByNameInOrderByIdAsc(List.of("Lava Slime"));
+
+        // THEN
+        assertThat(cached).isEmpty();
+        assertThat(statementsWhenCached).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(afterWrite).extracting(Product::getName).containsExactly("Lava Slime");
+    }
+
+    private Order createOrder(String customerName, String... productNames) {
+        Order order = new Order();
+        order.setCustomerName(customerName);
+        order.setOrderProducts(new ArrayList<>());
+        for (String productName : productNames) {
+            OrderProduct orderProduct = new OrderProduct();
+            orderProduct.setProduct(new Product(null, productName, null));
+            orderProduct.setQuantity(1);
+            order.getOrderProducts().add(orderProduct);
+        }
+        return order;
+    }
+
+    private Order createOrderByIds(String customerName, List<Long> productIds) {
+        Order order = new Order();
+        order.setCustomerName(customerName);
+        order.setOrderProducts(new ArrayList<>());
+        for (Long productId : productIds) {
+            OrderProduct orderProduct = new OrderProduct();
+            orderProduct.setProduct(new Product(productId, null, null));
+            orderProduct.setQuantity(1);
+            order.getOrderProducts().add(orderProduct);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.slimestore.service;
+
+import com.example.slimestore.config.CacheConfig;
+import com.example.slimestore.config.OrderSearchProperties;
+import com.example.slimestore.config.OutboxProperties;
+import com.example.slimestore.config.ProductCacheProperties;
+import com.example.slimestore.config.ReadReplicaConfig;
+import com.example.slimestore.config.ReadReplicaDataSource;
+import com.example.slimestore.config.ReadReplicaProperties;
+import com.example.slimestore.jpa.Order;
+import com.example.slimestore.jpa.OrderProduct;
+import com.example.slimestore.jpa.Product;
+import com.example.slimestore.mapper.order.OrderMapperImpl;
+import com.example.slimestore.mapper.orderproduct.OrderProductMapperImpl;
+import com.example.slimestore.mapper.product.ProductMapperImpl;
+import com.example.slimestore.model.order.OrderDto;
+import com.example.slimestore.repository.OrderRepository;
+import com.example.slimestore.repository.OutboxMessageRepository;
+import com.example.slimestore.repository.ProductRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// tests read replica routing with two h2 embedded dbs, "replicating" by copying the primary with its SCRIPT command
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replicas.enabled=true",
+        "app.datasource.replicas.instances[0].url=" + ReadReplicaRoutingIntegrationTest.REPLICA_URL,
+        "app.datasource.replicas.max-lag=1s",
+        "app.datasource.replicas.lag-probe-interval=200ms",
+        "app.datasource.replicas.lag-query=select seconds from replication_lag" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Import({ ReadReplicaConfig.class, OrderService.class, ProductResolver.class, OrderCache.class, CacheConfig.class,
+        OutboxBacklogMonitor.class, OrderMapperImpl.class, OrderProductMapperImpl.class, ProductMapperImpl.class,
+        SimpleMeterRegistry.class })
+@EnableConfigurationProperties({ ReadReplicaProperties.class, ProductCacheProperties.class,
+        OrderSearchProperties.class, OutboxProperties.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OutboxBacklogMonitor outboxBacklogMonitor;
+    @Autowired
+    private ReadReplicaDataSource readReplicaDataSource;
+    @Autowired
+    private HikariDataSource primaryDataSource;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL));
+
+    @BeforeEach
+    void setUp() {
+        replicate(0);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        outboxMessageRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @Description("given order written after the last replication when read only queries then replica state expected")
+    void givenOrderNotReplicated_whenReadOnlyQueries_thenServedByReplica() {
+        // GIVEN
+        Long orderId = orderService.createOrder(createOrder("Alice", "Galaxy Slime")).getId();
+
+        // WHEN
+        List<OrderDto> searchBeforeReplication = orderService.findByProductName("Galaxy Slime", null, 10).getContent();
+        replicate(0);
+        List<OrderDto> searchAfterReplication = orderService.findByProductName("Galaxy Slime", null, 10).getContent();
+
+        // THEN
+        assertThat(searchBeforeReplication).isEmpty();
+        assertThat(searchAfterReplication).extracting(OrderDto::getId).containsExactly(orderId);
+    }
+
+    @Test
+    @Description("given deleted order cached from a lagging replica when replica caught up then cached order evicted")
+    void givenOrderDeletedOnPrimaryOnly_whenReplicaCaughtUp_thenStaleCachedOrderEvicted() throws Exception {
+        // GIVEN
+        Long orderId = orderService.createOrder(createOrder("Dora", "Lava Slime")).getId();
+        replicate(1);
+        assertThat(orderService.getOrderById(orderId)).isPresent();
+        orderService.deleteOrder(orderId);
+        Optional<OrderDto> readFromReplica = orderService.getOrderById(orderId);
+
+        // WHEN
+        replicate(0);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (orderService.getOrderById(orderId).isPresent() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        // THEN
+        assertThat(readFromReplica).isPresent();
+        assertThat(orderService.getOrderById(orderId)).isEmpty();
+    }
+
+    @Test
+    @Description("given replica lagging beyond the maximum when read only query then primary state expected")
+    void givenReplicaLagging_whenReadOnlyQuery_thenFallsBackToPrimary() {
+        // GIVEN
+        orderService.createOrder(createOrder("Bob", "Cloud Slime"));
+        replica.update("update replication_lag set seconds = 60");
+        readReplicaDataSource.probeLag();
+
+        // WHEN
+        List<OrderDto> orders = orderService.findByProductName("Cloud Slime", null, 10).getContent();
+
+        // THEN
+        assertThat(orders).extracting(OrderDto::getCustomerName).containsExactly("Bob");
+    }
+
+    @Test
+    @Description("given outbox message written after the last replication when backlog measured then primary counted")
+    void givenOutboxMessageNotReplicated_whenBacklogMeasured_thenReadFromPrimary() {
+        // GIVEN
+        orderService.createOrder(createOrder("Clara", "Glitter Slime"));
+
+        // WHEN
+        long backlog = outboxBacklogMonitor.currentBacklog().getSize();
+
+        // THEN
+        assertThat(backlog).isEqualTo(1);
+    }
+
+    // copies the schema and data of the primary to the replica and reports the given lag there
+    private void replicate(double lagSeconds) {
+        List<String> script = new JdbcTemplate(primaryDataSource).queryForList("script", String.class);
+        replica.execute("drop all objects");
+        script.forEach(replica::execute);
+        replica.execute("create table replication_lag (seconds double precision)");
+        replica.update("insert into replication_lag values (?)", lagSeconds);
+        readReplicaDataSource.probeLag();
+    }
+
+    private Order createOrder(String customerName, String productName) {
+        OrderProduct orderProduct = new OrderProduct();
+        orderProduct.setProduct(new Product(null, productName, null));
+        orderProduct.setQuantity(1);
+        Order order = new Order();
+        order.setCustomerName(customerName);
+        order.setOrderProducts(new ArrayList<>(List.of(orderProduct)));
+        return order;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.slimestore.util;
+
+import com.example.slimestore.model.order.OrderEvent;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static com.example.slimestore.jpa.Order.OrderStatus.ORDER_CREATED;
+import static com.example.slimestore.jpa.Order.OrderStatus.ORDER_DELETED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderEventCodecTest {
+
+    @Test
+    @Description("given order event when encoded and decoded then the same event expected in fewer bytes than its string form")
+    void givenOrderEvent_whenEncodedAndDecoded_thenSameEvent() {
+        // GIVEN
+        OrderEvent deleted = new OrderEvent(ORDER_DELETED, 123_456L, null, Instant.ofEpochMilli(1_760_000_000_000L));
+        OrderEvent created = new OrderEvent(ORDER_CREATED, 123_456L, "Anna Petrova", Instant.ofEpochMilli(1_760_000_000_000L));
+
+        // WHEN
+        byte[] encodedDeleted = OrderEventCodec.encode(deleted);
+        byte[] encodedCreated = OrderEventCodec.encode(created);
+
+        // THEN
+        assertThat(OrderEventCodec.decode(OrderEventCodec.SCHEMA_VERSION, encodedDeleted)).isEqualTo(deleted);
+        assertThat(OrderEventCodec.decode(OrderEventCodec.SCHEMA_VERSION, encodedCreated)).isEqualTo(created);
+        assertThat(encodedDeleted.length).isLessThan(OrderUtil.buildOrderStatusMessage(ORDER_DELETED, 123_456L).length());
+    }
+
+    @Test
+    @Description("given record without schema version header when read then the string format is parsed")
+    void givenRecordWithoutVersionHeader_whenRead_thenStringFormatParsed() {
+        // GIVEN
+        byte[] value = OrderUtil.buildOrderStatusMessage(ORDER_CREATED, 42L).getBytes(StandardCharsets.UTF_8);
+
+        // WHEN
+        OrderEvent event = OrderEventCodec.read(new RecordHeaders(), value);
+
+        // THEN
+        assertThat(event.getType()).isEqualTo(ORDER_CREATED);
+        assertThat(event.getOrderId()).isEqualTo(42L);
+        assertThat(event.getOccurredAt()).isNull();
+    }
+
+    @Test
+    @Description("given schema version 1 event when decoded then it is read without customer name")
+    void givenSchemaVersion1Event_whenDecoded_thenReadWithoutCustomerName() {
+        // GIVEN
+        byte[] version1 = { 1, (byte) 0xAC, 0x02, 0x05 };
+
+        // WHEN
+        OrderEvent event = OrderEventCodec.decode((byte) 1, version1);
+
+        // THEN
+        assertThat(event).isEqualTo(new OrderEvent(ORDER_CREATED, 300L, null, Instant.ofEpochMilli(5)));
+    }
+
+    @Test
+    @Description("given unknown schema version or truncated value when read then rejected")
+    void givenUnknownVersionOrTruncatedValue_whenRead_thenRejected() {
+        // GIVEN
+        byte[] encoded = OrderEventCodec.encode(new OrderEvent(ORDER_CREATED, 300L, "Anna", Instant.now()));
+        RecordHeaders futureVersion = new RecordHeaders();
+        futureVersion.add(OrderEventCodec.SCHEMA_VERSION_HEADER, new byte[]{ 3 });
+        RecordHeaders currentVersion = new RecordHeaders();
+        currentVersion.add(OrderEventCodec.SCHEMA_VERSION_HEADER, new byte[]{ OrderEventCodec.SCHEMA_VERSION });
+
+        // THEN
+        assertThatThrownBy(() -> OrderEventCodec.read(futureVersion, encoded))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderEventCodec.read(currentVersion, new byte[]{ 1, (byte) 0x80 }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.slimestore.util;
+
+import com.example.slimestore.model.order.OrderDto;
+import com.example.slimestore.model.order.OrderLineRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class OrderRowUtilTest {
+
+    @Test
+    @Description("given rows of several orders when assembled then one order per id with its lines in row order expected")
+    void givenRowsOfSeveralOrders_whenAssembled_thenGroupedByOrder() {
+        // GIVEN
+        List<OrderLineRow> rows = List.of(
+                new OrderLineRow(1L, "Anna", 10L, 100L, "Galaxy Slime", 2),
+                new OrderLineRow(1L, "Anna", 11L, 101L, "Cloud Slime", 1),
+                new OrderLineRow(2L, "Boris", null, null, null, null),
+                new OrderLineRow(3L, "Clara", 12L, 100L, "Galaxy Slime", 5));
+
+        // WHEN
+        List<OrderDto> orders = OrderRowUtil.toOrderDtos(rows);
+
+        // THEN
+        assertThat(orders)
+                .extracting(OrderDto::getId, OrderDto::getCustomerName, order -> order.getOrderProducts().size())
+                .containsExactly(tuple(1L, "Anna", 2), tuple(2L, "Boris", 0), tuple(3L, "Clara", 1));
+        assertThat(orders.getFirst().getOrderProducts())
+                .extracting(line -> line.getId(), line -> line.getProduct().getId(),
+                        line -> line.getProduct().getName(), line -> line.getQuantity())
+                .containsExactly(tuple(10L, 100L, "Galaxy Slime", 2), tuple(11L, 101L, "Cloud Slime", 1));
+    }
+
+    @Test
+    @Description("given no rows when assembled then no orders expected")
+    void givenNoRows_whenAssembled_thenEmpty() {
+        // WHEN & THEN
+        assertThat(OrderRowUtil.toOrderDtos(List.of())).isEmpty();
+    }
+}
@@ -8,7 +8,7 @@ INSERT INTO orders (id, customer_name) VALUES (1002, 'Bob');
 INSERT INTO orders (id, customer_name) VALUES (1003, 'Charlie');
 INSERT INTO orders (id, customer_name) VALUES (1004, 'Dave');
 
-INSERT INTO order_products (order_id, product_id, quantity) VALUES (1001, 1, 1);
-INSERT INTO order_products (order_id, product_id, quantity) VALUES (1002, 2, 2);
-INSERT INTO order_products (order_id, product_id, quantity) VALUES (1003, 3, 3);
-INSERT INTO order_products (order_id, product_id, quantity) VALUES (1004, 2, 1);
\ No newline at end of file
+INSERT INTO order_products (id, order_id, product_id, quantity) VALUES (2001, 1001, 1, 1);
+INSERT INTO order_products (id, order_id, product_id, quantity) VALUES (2002, 1002, 2, 2);
+INSERT INTO order_products (id, order_id, product_id, quantity) VALUES (2003, 1003, 3, 3);
+INSERT INTO order_products (id, order_id, product_id, quantity) VALUES (2004, 1004, 2, 1);